@@ -0,0 +1,32 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Same as the JMH launcher, but always reports allocation rates and runs the forks with lines ending with \r\n,
+ * as they do on the production server; the student table is only found in text split that way.
+ * The separator cannot be set in {@code @Fork}: JMH keeps the annotation in a line-based list and the line break
+ * in it corrupts the list.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        List<String> jvmArgs = new ArrayList<>(options.getJvmArgsAppend().orElse(Collections.<String>emptyList()));
+        jvmArgs.add("-Dline.separator=\r\n");
+        new Runner(new OptionsBuilder()
+                .parent(options)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+                .build())
+                .run();
+    }
+}
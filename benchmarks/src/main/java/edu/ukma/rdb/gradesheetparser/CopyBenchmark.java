@@ -0,0 +1,62 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import edu.ukma.rdb.gradesheetparser.models.ChadSheetCore;
+import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
+import edu.ukma.rdb.gradesheetparser.models.ModelCopier;
+import edu.ukma.rdb.gradesheetparser.models.StudentData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying a checked sheet into the result of the check, reflectively and with {@link ModelCopier}.
+ * {@code beanUtils} copies student rows by reference, {@code beanUtilsDeep} copies them one by one like the copier does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CopyBenchmark {
+    @Param({"10", "50", "200", "1000"})
+    int rows;
+
+    private ChadSheetCore chadSheet;
+
+    @Setup
+    public void setUp() throws IOException {
+        chadSheet = ModelCopier.copy(SheetFixtures.parseService().parseText(SheetFixtures.text(rows, false), "sheet.pdf"),
+                new ChadSheetCore());
+    }
+
+    @Benchmark
+    public ChadStudentsSheet beanUtils() {
+        ChadStudentsSheet copy = new ChadStudentsSheet();
+        BeanUtils.copyProperties(chadSheet, copy);
+        return copy;
+    }
+
+    @Benchmark
+    public ChadStudentsSheet beanUtilsDeep() {
+        ChadStudentsSheet copy = new ChadStudentsSheet();
+        BeanUtils.copyProperties(chadSheet, copy);
+        List<StudentData> studentsData = new ArrayList<>(chadSheet.getStudentsData().size());
+        for (StudentData std : chadSheet.getStudentsData()) {
+            StudentData stdCopy = new StudentData();
+            BeanUtils.copyProperties(std, stdCopy);
+            studentsData.add(stdCopy);
+        }
+        copy.setStudentsData(studentsData);
+        return copy;
+    }
+
+    @Benchmark
+    public ChadStudentsSheet modelCopier() {
+        return ModelCopier.copy(chadSheet, new ChadStudentsSheet());
+    }
+}
@@ -0,0 +1,72 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.pdf.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The extraction engines side by side: text alone and the full parse of the same upload. Allocation per operation
+ * comes from the GC profiler, see {@link BenchmarkRunner}. Setup fails if an engine parses the sheet differently
+ * from PDFBox, so only engines that can replace it are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// lines end with \r\n, see BenchmarkRunner
+@Fork(1)
+public class ExtractionBenchmark {
+    @Param({"10", "200", "1000"})
+    int rows;
+    @Param({"pdfbox", "itext"})
+    String engine;
+
+    private SpooledUpload upload;
+    private ExtractionBackend backend;
+    private ParseService parseService;
+
+    @Setup
+    public void setUp() throws IOException {
+        ExtractionEngine extractionEngine = ExtractionEngine.of(engine);
+        PdfDocumentLoader pdfLoader = SheetFixtures.pdfLoader(new ParserMetrics(new SimpleMeterRegistry()));
+        upload = pdfLoader.spool(new ByteArrayInputStream(SheetFixtures.pdf(rows, false)));
+        ExtractionProperties properties = new ExtractionProperties();
+        // serial, so the engines are compared on one thread
+        properties.setParallel(false);
+        backend = new ExtractionBackends(properties, Arrays.asList(
+                new PdfBoxBackend(pdfLoader, new TextExtractor(properties, pdfLoader, SheetFixtures.contexts())),
+                new ITextBackend(pdfLoader, properties)))
+                .get(extractionEngine);
+        parseService = SheetFixtures.parseService(extractionEngine);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String expected = objectMapper.writeValueAsString(
+                SheetFixtures.parseService().parse("sheet.pdf", upload));
+        if (!expected.equals(objectMapper.writeValueAsString(parse())))
+            throw new IllegalStateException(engine + " parses the sheet differently from PDFBox");
+    }
+
+    @TearDown
+    public void tearDown() {
+        upload.close();
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return backend.read(upload, document -> document.getText(null));
+    }
+
+    @Benchmark
+    public GradeSheet parse() throws IOException {
+        return parseService.parse("sheet.pdf", upload);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.pdf.SheetRegions;
+import edu.ukma.rdb.gradesheetparser.pdf.TextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole uploads: text stripping alone (serial, page-parallel and by layout regions) and the full
+ * {@link ParseService#parse(String, java.io.InputStream)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// lines end with \r\n, see BenchmarkRunner
+@Fork(1)
+public class PdfBenchmark {
+    @Param({"10", "50", "200", "1000"})
+    int rows;
+
+    private byte[] pdf;
+    private File pdfFile;
+    private PDDocument document;
+    private TextExtractor parallelExtractor;
+    private ParseService parseService;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdf = SheetFixtures.pdf(rows, false);
+        pdfFile = File.createTempFile("sheet-", ".pdf");
+        Files.write(pdfFile.toPath(), pdf);
+        document = PDDocument.load(pdf);
+        parseService = SheetFixtures.parseService();
+        parallelExtractor = SheetFixtures.textExtractor(
+                SheetFixtures.pdfLoader(new ParserMetrics(new SimpleMeterRegistry())), true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        document.close();
+        parallelExtractor.destroy();
+        Files.delete(pdfFile.toPath());
+    }
+
+    @Benchmark
+    public String stripText() throws IOException {
+        return new PDFTextStripper().getText(document);
+    }
+
+    @Benchmark
+    public String stripTextParallel() throws IOException {
+        return parallelExtractor.getText(document, pdfFile);
+    }
+
+    @Benchmark
+    public SheetRegions stripRegions() throws IOException {
+        return parallelExtractor.getRegions(document);
+    }
+
+    @Benchmark
+    public GradeSheet parse() throws IOException {
+        return parseService.parse("sheet.pdf", new ByteArrayInputStream(pdf));
+    }
+}
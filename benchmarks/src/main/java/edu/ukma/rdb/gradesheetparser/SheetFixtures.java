@@ -0,0 +1,264 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import edu.ukma.rdb.gradesheetparser.cache.ParseResultCache;
+import edu.ukma.rdb.gradesheetparser.cache.ResultCacheProperties;
+import edu.ukma.rdb.gradesheetparser.context.ParseContextPool;
+import edu.ukma.rdb.gradesheetparser.context.ParseContextProperties;
+import edu.ukma.rdb.gradesheetparser.debug.DebugDumpProperties;
+import edu.ukma.rdb.gradesheetparser.debug.TextDumper;
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import edu.ukma.rdb.gradesheetparser.office.OfficeBackend;
+import edu.ukma.rdb.gradesheetparser.pdf.ExtractionBackends;
+import edu.ukma.rdb.gradesheetparser.pdf.ExtractionEngine;
+import edu.ukma.rdb.gradesheetparser.pdf.ExtractionProperties;
+import edu.ukma.rdb.gradesheetparser.pdf.ITextBackend;
+import edu.ukma.rdb.gradesheetparser.pdf.PdfBoxBackend;
+import edu.ukma.rdb.gradesheetparser.pdf.PdfDocumentLoader;
+import edu.ukma.rdb.gradesheetparser.pdf.PdfMemoryProperties;
+import edu.ukma.rdb.gradesheetparser.pdf.TextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic grade sheets laid out like the ones issued by the faculties.
+ * The same row count always gives the same sheet, so results of different runs can be compared.
+ */
+final class SheetFixtures {
+    private static final String FONT = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final int LINES_PER_PAGE = 45;
+    private static final float FONT_SIZE = 7;
+    private static final float LEADING = 15;
+    private static final float LEFT = 30;
+    private static final float TOP = 760;
+    private static final float COLUMN_GAP = 10;
+    // the student columns and the teacher's signature
+    private static final int TABLE_COLUMNS = 9;
+    private static final String[] SURNAMES = {"Шевченко", "Коваленко", "Бондаренко", "Ткаченко", "Кравченко",
+            "Олійник", "Мельник", "Захарчук", "Лисенко", "Гончар", "Руденко", "Марченко"};
+    private static final String[] FIRST_NAMES = {"Олександр", "Марія", "Андрій", "Оксана", "Дмитро",
+            "Ірина", "Тарас", "Наталія", "Богдан", "Софія"};
+    private static final String[] PATRONYMICS = {"Іванович", "Петрівна", "Олегович", "Андріївна", "Васильович"};
+
+    private SheetFixtures() {
+    }
+
+    static List<String> lines(int rows, boolean bigunets) {
+        List<String> lines = new ArrayList<>();
+        for (String[] cells : cells(rows, bigunets)) {
+            StringBuilder line = new StringBuilder();
+            for (String cell : cells) {
+                if (cell.isEmpty()) continue;
+                if (line.length() > 0) line.append(' ');
+                line.append(cell);
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Lines of the sheet; the table headings and student rows are split into cells, other lines are one cell.
+     */
+    static List<String[]> cells(int rows, boolean bigunets) {
+        Random random = new Random(rows);
+        List<String[]> lines = new ArrayList<>();
+        lines.add(new String[]{"НАЦІОНАЛЬНИЙ УНІВЕРСИТЕТ «КИЄВО-МОГИЛЯНСЬКА АКАДЕМІЯ»"});
+        lines.add(new String[]{(bigunets ? "ЗАЛІКОВО-ЕКЗАМЕНАЦІЙНИЙ ЛИСТОК" : "ЗАЛІКОВО-ЕКЗАМЕНАЦІЙНА ВІДОМІСТЬ") + " № 160"});
+        lines.add(new String[]{"Освітній рівень бакалавр"});
+        lines.add(new String[]{"Факультет інформатики"});
+        lines.add(new String[]{"Рік навчання 3  Група " + (bigunets ? "бігунець" : "2")});
+        lines.add(new String[]{"Дисципліна Бази даних та інформаційні системи"});
+        lines.add(new String[]{"Семестр 6   Залікові бали 4"});
+        lines.add(new String[]{"Форма контролю: екзамен   Дата « 14 » січня 2021 р."});
+        if (bigunets) {
+            lines.add(new String[]{"Причина перенесення хвороба студента"});
+            lines.add(new String[]{"Форма навчання денна"});
+            lines.add(new String[]{"Дійсне до « 28 » лютого 2021 р."});
+        }
+        lines.add(new String[]{"Екзаменатор Іваненко Іван Іванович, доцент, кандидат наук"});
+        lines.add(new String[]{"(прізвище, ім'я, по батькові)"});
+        lines.add(new String[]{"№ з/п", "Прізвище, ім'я, по батькові", "№ залікової книжки", "Оцінка за семестр",
+                "Оцінка за екзамен", "Сума", "Національна оцінка", "ECTS", "Підпис викладача"});
+        int missing = 0;
+        for (int i = 1; i <= rows; i++) {
+            String name = SURNAMES[random.nextInt(SURNAMES.length)] + " " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+                    + " " + PATRONYMICS[random.nextInt(PATRONYMICS.length)];
+            String bookNo = "І " + (100 + random.nextInt(900)) + "/" + (10 + random.nextInt(90)) + (random.nextBoolean() ? " бп" : " мп");
+            int termGrade = random.nextInt(61);
+            if (random.nextInt(20) == 0) {
+                lines.add(new String[]{String.valueOf(i), name, bookNo, String.valueOf(termGrade), "", "", "Не відвідував", "F"});
+                missing++;
+                continue;
+            }
+            int examGrade = random.nextInt(41);
+            int sum = termGrade + examGrade;
+            lines.add(new String[]{String.valueOf(i), name, bookNo, String.valueOf(termGrade), String.valueOf(examGrade),
+                    String.valueOf(sum), nationalGrade(sum), String.valueOf(ectsGrade(sum))});
+        }
+        lines.add(new String[]{"* - не враховується"});
+        lines.add(new String[]{"Кількість студентів на екзамені /тезі /заліку " + (rows - missing)});
+        lines.add(new String[]{"Кількість студентів, які не з’явились на екзамен /тезу /залік " + missing});
+        lines.add(new String[]{"Кількість студентів, недопущених до екзамену /тези /заліку 0"});
+        lines.add(new String[]{"Декан факультету Петров Петро Петрович"});
+        return lines;
+    }
+
+    static byte[] pdf(int rows, boolean bigunets) throws IOException {
+        List<String> lines = lines(rows, bigunets);
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDFont font = font(document);
+            for (int first = 0; first < lines.size(); first += LINES_PER_PAGE) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(LEFT, TOP);
+                    for (String line : lines.subList(first, Math.min(lines.size(), first + LINES_PER_PAGE))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * The same sheet as {@link #pdf} with every table cell drawn on its own at the left edge of its column,
+     * as sheets made from a table are laid out. PDFBox strips the same text from both.
+     */
+    static byte[] tablePdf(int rows, boolean bigunets) throws IOException {
+        List<String[]> lines = cells(rows, bigunets);
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDFont font = font(document);
+            // every column is as wide as its widest cell; lines outside the table are one cell and take no part
+            float[] columns = new float[TABLE_COLUMNS];
+            for (String[] cells : lines) {
+                if (cells.length == 1) continue;
+                for (int c = 0; c < cells.length; c++)
+                    columns[c] = Math.max(columns[c], font.getStringWidth(cells[c]) / 1000 * FONT_SIZE + COLUMN_GAP);
+            }
+            for (int first = 0; first < lines.size(); first += LINES_PER_PAGE) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    float y = TOP;
+                    for (String[] cells : lines.subList(first, Math.min(lines.size(), first + LINES_PER_PAGE))) {
+                        float x = LEFT;
+                        for (int c = 0; c < cells.length; c++) {
+                            if (!cells[c].isEmpty()) {
+                                content.beginText();
+                                content.setFont(font, FONT_SIZE);
+                                content.newLineAtOffset(x, y);
+                                content.showText(cells[c]);
+                                content.endText();
+                            }
+                            x += columns[c];
+                        }
+                        y -= LEADING;
+                    }
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static PDFont font(PDDocument document) throws IOException {
+        try (InputStream fontFile = PDDocument.class.getResourceAsStream(FONT)) {
+            return PDType0Font.load(document, fontFile);
+        }
+    }
+
+    /**
+     * Text of the generated PDF as PDFBox extracts it on the Windows server the sheets come from.
+     */
+    static String text(int rows, boolean bigunets) throws IOException {
+        try (PDDocument document = PDDocument.load(pdf(rows, bigunets))) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setLineSeparator("\r\n");
+            stripper.setPageEnd("\r\n");
+            return stripper.getText(document);
+        }
+    }
+
+    static PdfDocumentLoader pdfLoader(ParserMetrics metrics) {
+        return new PdfDocumentLoader(new PdfMemoryProperties(), metrics);
+    }
+
+    static ParseContextPool contexts() {
+        return new ParseContextPool(new ParseContextProperties());
+    }
+
+    static TextExtractor textExtractor(PdfDocumentLoader pdfLoader, boolean parallel) {
+        ExtractionProperties properties = new ExtractionProperties();
+        properties.setParallel(parallel);
+        return new TextExtractor(properties, pdfLoader, contexts());
+    }
+
+    static ParseService parseService() {
+        return parseService(ExtractionEngine.PDFBOX);
+    }
+
+    static ParseService parseService(ExtractionEngine engine) {
+        return parseService(engine, false);
+    }
+
+    /**
+     * @param table whether the student table is read by cell, see {@link ExtractionProperties#isTable()}
+     */
+    static ParseService parseService(ExtractionEngine engine, boolean table) {
+        ResultCacheProperties cacheProperties = new ResultCacheProperties();
+        cacheProperties.setEnabled(false);
+        ParserMetrics metrics = new ParserMetrics(new SimpleMeterRegistry());
+        PdfDocumentLoader pdfLoader = pdfLoader(metrics);
+        ExtractionProperties properties = new ExtractionProperties();
+        properties.setEngine(engine);
+        properties.setTable(table);
+        ParseContextPool contexts = contexts();
+        TextExtractor textExtractor = new TextExtractor(properties, pdfLoader, contexts);
+        return new ParseService(new TextDumper(new DebugDumpProperties()),
+                pdfLoader,
+                textExtractor,
+                new ExtractionBackends(properties, Arrays.asList(
+                        new PdfBoxBackend(pdfLoader, textExtractor),
+                        new ITextBackend(pdfLoader, properties))),
+                new OfficeBackend(pdfLoader),
+                new ParseResultCache(cacheProperties, metrics),
+                contexts,
+                metrics);
+    }
+
+    private static String nationalGrade(int sum) {
+        if (sum > 90) return "Відмінно";
+        if (sum >= 71) return "Добре";
+        if (sum >= 60) return "Задовільно";
+        return "Незадовільно";
+    }
+
+    private static char ectsGrade(int sum) {
+        if (sum > 90) return 'A';
+        if (sum > 80) return 'B';
+        if (sum > 70) return 'C';
+        if (sum > 65) return 'D';
+        if (sum >= 60) return 'E';
+        return 'F';
+    }
+}
@@ -0,0 +1,82 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.pdf.ExtractionEngine;
+import edu.ukma.rdb.gradesheetparser.pdf.PdfDocumentLoader;
+import edu.ukma.rdb.gradesheetparser.pdf.SpooledUpload;
+import edu.ukma.rdb.gradesheetparser.pdf.TabularText;
+import edu.ukma.rdb.gradesheetparser.pdf.TextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the student table by cell against finding it in the flattened text, on a sheet drawn cell by cell.
+ * Setup fails if the two parse the sheet differently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// lines end with \r\n, see BenchmarkRunner
+@Fork(1)
+public class TableBenchmark {
+    @Param({"10", "200", "1000"})
+    int rows;
+
+    private PDDocument document;
+    private SpooledUpload upload;
+    private TextExtractor textExtractor;
+    private ParseService textParseService;
+    private ParseService tableParseService;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] pdf = SheetFixtures.tablePdf(rows, false);
+        document = PDDocument.load(pdf);
+        PdfDocumentLoader pdfLoader = SheetFixtures.pdfLoader(new ParserMetrics(new SimpleMeterRegistry()));
+        upload = pdfLoader.spool(new ByteArrayInputStream(pdf));
+        textExtractor = SheetFixtures.textExtractor(pdfLoader, false);
+        textParseService = SheetFixtures.parseService(ExtractionEngine.PDFBOX, false);
+        tableParseService = SheetFixtures.parseService(ExtractionEngine.PDFBOX, true);
+
+        if (stripTable().getTable() == null) throw new IllegalStateException("Table not found by its layout");
+        ObjectMapper objectMapper = new ObjectMapper();
+        if (!objectMapper.writeValueAsString(parseText()).equals(objectMapper.writeValueAsString(parseTable())))
+            throw new IllegalStateException("The table read by cell parses differently from the text");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        document.close();
+        upload.close();
+    }
+
+    @Benchmark
+    public String stripText() throws IOException {
+        return new PDFTextStripper().getText(document);
+    }
+
+    @Benchmark
+    public TabularText stripTable() throws IOException {
+        return textExtractor.getTabularText(document);
+    }
+
+    @Benchmark
+    public GradeSheet parseText() throws IOException {
+        return textParseService.parse("sheet.pdf", upload);
+    }
+
+    @Benchmark
+    public GradeSheet parseTable() throws IOException {
+        return tableParseService.parse("sheet.pdf", upload);
+    }
+}
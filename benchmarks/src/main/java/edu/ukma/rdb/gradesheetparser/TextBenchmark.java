@@ -0,0 +1,77 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import edu.ukma.rdb.gradesheetparser.context.ParseContext;
+import edu.ukma.rdb.gradesheetparser.extraction.HeaderExtractor;
+import edu.ukma.rdb.gradesheetparser.extraction.HeaderField;
+import edu.ukma.rdb.gradesheetparser.extraction.StudentRowReader;
+import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+
+/**
+ * Stages of {@link ParseService} that work on the extracted text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextBenchmark {
+    @Param({"10", "50", "200", "1000"})
+    int rows;
+
+    private String text;
+    private String normalizedText;
+    private String table;
+    private ParseService parseService;
+    // held for the whole run, as a worker holds it for a parse
+    private ParseContext context;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = SheetFixtures.contexts().borrow();
+        text = SheetFixtures.text(rows, false);
+        normalizedText = ParseService.normalize(context, text);
+        table = ParseService.findTable(context, normalizedText).trim();
+        parseService = SheetFixtures.parseService();
+        if (table.isEmpty()) throw new IllegalStateException("Fixture has no student table");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return ParseService.normalize(context, text);
+    }
+
+    @Benchmark
+    public Map<HeaderField, MatchResult> extractHeader() {
+        return HeaderExtractor.extract(normalizedText, context);
+    }
+
+    @Benchmark
+    public String findTable() {
+        return ParseService.findTable(context, normalizedText);
+    }
+
+    @Benchmark
+    public GradeSheet parseTable() {
+        GradeSheet sheet = new ChadStudentsSheet();
+        parseService.setStudentData(new StudentRowReader(table), sheet);
+        return sheet;
+    }
+
+    @Benchmark
+    public GradeSheet parseText() {
+        return parseService.parseText(text, "sheet.pdf");
+    }
+}
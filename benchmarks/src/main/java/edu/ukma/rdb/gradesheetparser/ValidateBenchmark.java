@@ -0,0 +1,50 @@
+package edu.ukma.rdb.gradesheetparser;
+
+import edu.ukma.rdb.gradesheetparser.models.Bigunets;
+import edu.ukma.rdb.gradesheetparser.models.ChadSheetCore;
+import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
+import edu.ukma.rdb.gradesheetparser.models.ModelCopier;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The check endpoints: the client sends back a parsed sheet, it is reset and validated again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateBenchmark {
+    @Param({"10", "50", "200", "1000"})
+    int rows;
+
+    private ParseService parseService;
+    private ChadSheetCore chadSheet;
+    private Bigunets bigunets;
+
+    @Setup
+    public void setUp() throws IOException {
+        parseService = SheetFixtures.parseService();
+        chadSheet = ModelCopier.copy(parseService.parseText(SheetFixtures.text(rows, false), "sheet.pdf"),
+                new ChadSheetCore());
+        bigunets = (Bigunets) parseService.parseText(SheetFixtures.text(rows, true), "sheet.pdf");
+    }
+
+    @Benchmark
+    public ChadStudentsSheet validateChad() {
+        chadSheet.resetDefaults();
+        chadSheet.setIsValid(true);
+        return parseService.validate(chadSheet);
+    }
+
+    @Benchmark
+    public Bigunets validateBigunets() {
+        bigunets.resetDefaults();
+        bigunets.setIsValid(true);
+        return parseService.validate(bigunets);
+    }
+}
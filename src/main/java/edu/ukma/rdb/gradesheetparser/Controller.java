@@ -1,25 +1,114 @@
 package edu.ukma.rdb.gradesheetparser;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ukma.rdb.gradesheetparser.async.ParseExecutor;
+import edu.ukma.rdb.gradesheetparser.batch.BatchParser;
+import edu.ukma.rdb.gradesheetparser.batch.BatchValidator;
+import edu.ukma.rdb.gradesheetparser.checks.SheetCheckService;
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import edu.ukma.rdb.gradesheetparser.jobs.JobService;
+import edu.ukma.rdb.gradesheetparser.models.BatchCheckResult;
+import edu.ukma.rdb.gradesheetparser.models.BatchParseResult;
 import edu.ukma.rdb.gradesheetparser.models.Bigunets;
 import edu.ukma.rdb.gradesheetparser.models.ChadSheetCore;
 import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
+import edu.ukma.rdb.gradesheetparser.models.CheckedSheet;
 import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.models.JobStatus;
+import edu.ukma.rdb.gradesheetparser.pdf.ExtractionEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class Controller {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final IParser parser;
+    private final ParseExecutor parseExecutor;
+    private final BatchParser batchParser;
+    private final BatchValidator batchValidator;
+    private final JobService jobService;
+    private final SheetCheckService sheetCheckService;
+    private final ObjectMapper objectMapper;
 
     @CrossOrigin
     @PostMapping(value = "/parse", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public GradeSheet receiveParseRequest(@RequestPart MultipartFile pdfInput) throws IOException {
-        return parser.parse(pdfInput);
+    public CompletableFuture<GradeSheet> receiveParseRequest(@RequestPart MultipartFile pdfInput,
+                                                             @RequestParam(required = false) String engine) {
+        ExtractionEngine extractionEngine = ExtractionEngine.of(engine);
+        if (engine != null && extractionEngine == null)
+            throw new ParseStructuralError("Невідомий рушій видобування тексту: " + engine + ".");
+        return parseExecutor.submit(() -> parser.parse(pdfInput, extractionEngine));
+    }
+
+    @CrossOrigin
+    @PostMapping(value = "/parse/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public List<BatchParseResult> receiveBatchParseRequest(@RequestPart List<MultipartFile> pdfInputs) throws IOException {
+        return batchParser.parse(pdfInputs);
+    }
+
+    @CrossOrigin
+    @PostMapping(value = "/parse/batch", consumes = "application/zip")
+    public List<BatchParseResult> receiveZipParseRequest(InputStream zipInput) throws IOException {
+        return batchParser.parseZip(zipInput);
+    }
+
+    @CrossOrigin
+    @PostMapping(value = "/parse/batch/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = NDJSON)
+    public StreamingResponseBody receiveStreamingBatchParseRequest(@RequestPart List<MultipartFile> pdfInputs) {
+        return out -> batchParser.parse(pdfInputs, result -> writeLine(out, result));
+    }
+
+    @CrossOrigin
+    @PostMapping(value = "/parse/batch/stream", consumes = "application/zip", produces = NDJSON)
+    public StreamingResponseBody receiveStreamingZipParseRequest(InputStream zipInput) {
+        return out -> batchParser.parseZip(zipInput, result -> writeLine(out, result));
+    }
+
+    @CrossOrigin
+    @PostMapping(value = "/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobStatus> submitJob(@RequestPart List<MultipartFile> pdfInputs) throws IOException {
+        return accepted(jobService.submit(pdfInputs));
+    }
+
+    @CrossOrigin
+    @PostMapping(value = "/jobs", consumes = "application/zip")
+    public ResponseEntity<JobStatus> submitZipJob(InputStream zipInput) throws IOException {
+        return accepted(jobService.submitZip(zipInput));
+    }
+
+    @CrossOrigin
+    @GetMapping("/jobs/{id}")
+    public JobStatus jobStatus(@PathVariable String id) {
+        return jobService.getStatus(id);
+    }
+
+    @CrossOrigin
+    @GetMapping("/jobs/{id}/results")
+    public List<BatchParseResult> jobResults(@PathVariable String id) {
+        return jobService.getResults(id);
+    }
+
+    private static ResponseEntity<JobStatus> accepted(JobStatus job) {
+        return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getId())).body(job);
+    }
+
+    private void writeLine(OutputStream out, BatchParseResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+        out.flush();
     }
 
     @CrossOrigin
@@ -30,6 +119,20 @@ public class Controller {
         return parser.validate(sheet);
     }
 
+    @CrossOrigin
+    @PostMapping("/checks")
+    public ResponseEntity<CheckedSheet> startCheck(@RequestBody ChadSheetCore sheet) {
+        CheckedSheet checked = sheetCheckService.start(sheet);
+        return ResponseEntity.created(URI.create("/checks/" + checked.getId())).body(checked);
+    }
+
+    @CrossOrigin
+    @PatchMapping("/checks/{id}")
+    public CheckedSheet updateCheck(@PathVariable String id, @RequestParam long version,
+                                    @RequestBody ChadSheetCore changes) {
+        return sheetCheckService.update(id, version, changes);
+    }
+
     @CrossOrigin
     @PostMapping("/check-bigunets")
     public Bigunets checkSessionFan(@RequestBody Bigunets bigunets) {
@@ -37,4 +140,10 @@ public class Controller {
         bigunets.setIsValid(true);
         return parser.validate(bigunets);
     }
+
+    @CrossOrigin
+    @PostMapping("/check-sheets")
+    public List<BatchCheckResult> checkSheets(@RequestBody List<GradeSheet> sheets) {
+        return batchValidator.validate(sheets);
+    }
 }
@@ -1,17 +1,48 @@
 package edu.ukma.rdb.gradesheetparser;
 
+import edu.ukma.rdb.gradesheetparser.checks.SheetCheck;
 import edu.ukma.rdb.gradesheetparser.models.Bigunets;
 import edu.ukma.rdb.gradesheetparser.models.ChadSheetCore;
 import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
 import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.pdf.ExtractionEngine;
+import edu.ukma.rdb.gradesheetparser.pdf.SpooledUpload;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface IParser {
     GradeSheet parse(MultipartFile input) throws IOException;
 
+    /**
+     * Parses a PDF, or a Word or Excel sheet when the file name ends with .docx or .xlsx.
+     *
+     * @param engine library to take the text of a PDF with, or null for the configured one
+     */
+    GradeSheet parse(MultipartFile input, ExtractionEngine engine) throws IOException;
+
+    GradeSheet parse(String fileName, InputStream input) throws IOException;
+
+    /**
+     * Parses an upload that is already on disk; the caller deletes it afterwards.
+     */
+    GradeSheet parse(String fileName, SpooledUpload upload) throws IOException;
+
     ChadStudentsSheet validate(ChadSheetCore input);
 
     Bigunets validate(Bigunets input);
+
+    /**
+     * Checks the sheet like {@link #validate(ChadSheetCore)} and keeps the outcome of every row for {@link #recheck}.
+     */
+    SheetCheck check(ChadSheetCore input);
+
+    /**
+     * Applies an edit to a checked sheet and checks again only what the edit can affect.
+     *
+     * @param changes header fields whose {@code *Changed} flag is set and student rows, matched by ordinal,
+     *                with the fields whose {@code *Changed} flag is set
+     */
+    void recheck(SheetCheck check, ChadSheetCore changes);
 }
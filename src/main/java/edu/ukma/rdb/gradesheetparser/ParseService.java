@@ -1,27 +1,43 @@
 package edu.ukma.rdb.gradesheetparser;
 
+import edu.ukma.rdb.gradesheetparser.cache.ParseResultCache;
+import edu.ukma.rdb.gradesheetparser.checks.SheetCheck;
+import edu.ukma.rdb.gradesheetparser.context.ParseContext;
+import edu.ukma.rdb.gradesheetparser.context.ParseContextPool;
+import edu.ukma.rdb.gradesheetparser.debug.TextDumper;
 import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import edu.ukma.rdb.gradesheetparser.extraction.HeaderExtractor;
+import edu.ukma.rdb.gradesheetparser.extraction.HeaderField;
+import edu.ukma.rdb.gradesheetparser.extraction.StudentRowReader;
+import edu.ukma.rdb.gradesheetparser.extraction.StudentRows;
+import edu.ukma.rdb.gradesheetparser.extraction.TableRowReader;
+import edu.ukma.rdb.gradesheetparser.grades.Attendance;
+import edu.ukma.rdb.gradesheetparser.grades.AttendanceCount;
+import edu.ukma.rdb.gradesheetparser.grades.ControlForm;
+import edu.ukma.rdb.gradesheetparser.grades.EctsGrade;
+import edu.ukma.rdb.gradesheetparser.grades.NationalGrade;
+import edu.ukma.rdb.gradesheetparser.metrics.ParseStage;
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics.Operation;
 import edu.ukma.rdb.gradesheetparser.models.*;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.springframework.beans.BeanUtils;
+import edu.ukma.rdb.gradesheetparser.office.OfficeBackend;
+import edu.ukma.rdb.gradesheetparser.office.OfficeFormat;
+import edu.ukma.rdb.gradesheetparser.pdf.*;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.function.Function;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
+@RequiredArgsConstructor
 public class ParseService implements IParser {
     private static final Map<String, Integer> MONTHS_MAP = new HashMap<String, Integer>() {{
         put("січня", 1);
@@ -38,111 +54,205 @@ public class ParseService implements IParser {
         put("грудня", 12);
     }};
 
-    private static final Map<Character, Function<Integer, Boolean>> ECTS_ASSERTS =
-            new HashMap<Character, Function<Integer, Boolean>>() {{
-                put('A', (Integer grade) -> grade > 90);
-                put('B', (Integer grade) -> grade > 80 && grade < 91);
-                put('C', (Integer grade) -> grade > 70 && grade < 81);
-                put('D', (Integer grade) -> grade > 65 && grade < 71);
-                put('E', (Integer grade) -> grade >= 60 && grade <= 65);
-                put('F', (Integer grade) -> grade < 60);
-            }};
-
-    private static final Map<String, Function<Integer, Boolean>> NATIONAL_ASSERTS =
-            new HashMap<String, Function<Integer, Boolean>>() {{
-                put("зараховано", (Integer grade) -> grade >= 60);
-                put("незараховано", (Integer grade) -> grade < 60);
-                put("відмінно", (Integer grade) -> grade > 90);
-                put("добре", (Integer grade) -> grade >= 71 && grade <= 90);
-                put("задовільно", (Integer grade) -> grade >= 60 && grade < 71);
-                put("незадовільно", (Integer grade) -> grade < 60);
-            }};
-
-    private static final Map<String, Set<String>> NATIONAL_GRADES = new HashMap<String, Set<String>>() {{
-        put("залік", new HashSet<String>() {{
-            add("Зараховано");
-            add("Не зараховано");
-            add("Не відвідував");
-            add("Не допущений");
-            add("Не відвідувала");
-            add("Не допущена");
-        }});
-        put("екзамен", new HashSet<String>() {{
-            add("Відмінно");
-            add("Добре");
-            add("Задовільно");
-            add("Незадовільно");
-            add("Не відвідував");
-            add("Не допущений");
-            add("Не відвідувла");
-            add("Не допущена");
-        }});
-    }};
+    private static final Pattern TABLE_HEAD_PATTERN =
+            Pattern.compile("(?ui)п\\s*і\\s*д\\s*п\\s*и\\s*с\\s*в\\s*и\\s*к\\s*л\\s*а\\s*д\\s*а\\s*ч\\s*а");
+    private static final Pattern TABLE_PATTERN =
+            Pattern.compile("(?ui).*?п\\s*і\\s*д\\s*п\\s*и\\s*с\\s*в\\s*и\\s*к\\s*л\\s*а\\s*д\\s*а\\s*ч\\s*а(.*?)\\*.*?");
+
+    private static final String UNKNOWN_DOCUMENT = "Не вдалося визначити тип заліково-екзаменаційного документу.";
 
-    private static final Map<String, String> NAT_GRADES_NORM_TO_CORRECT = NATIONAL_GRADES.values().stream()
-            .flatMap(Set::stream)
-            .distinct()
-            .map(grade -> new AbstractMap.SimpleImmutableEntry<>(grade.replaceAll(" ", "").toLowerCase(), grade))
-            .collect(Collectors.toMap(AbstractMap.SimpleImmutableEntry::getKey, AbstractMap.SimpleImmutableEntry::getValue));
+    private final TextDumper textDumper;
+    private final PdfDocumentLoader pdfLoader;
+    private final TextExtractor textExtractor;
+    private final ExtractionBackends backends;
+    private final OfficeBackend officeBackend;
+    private final ParseResultCache resultCache;
+    private final ParseContextPool contexts;
+    private final ParserMetrics metrics;
 
     @Override
     public GradeSheet parse(MultipartFile input) throws IOException {
-        try (InputStream fileStream = input.getInputStream()) {
-            PDDocument document = PDDocument.load(fileStream);
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            String text = pdfStripper.getText(document);
-
-            BufferedWriter writer = new BufferedWriter(new FileWriter("output.txt"));
-            writer.write(text);
-            writer.close();
-
-            text = text.replaceAll("(_+)|(\\s{2,})", " ");
-            Pattern tablePattern = Pattern.compile("(?ui).*?п\\s*і\\s*д\\s*п\\s*и\\s*с\\s*в\\s*и\\s*к\\s*л\\s*а\\s*д\\s*а\\s*ч\\s*а(.*?)\\*.*?");
-            Matcher tableMatch = tablePattern.matcher(text);
-            String table = tableMatch.find() ? tableMatch.group(1) : "";
-
-
-            GradeSheet sheet = identifySheet(text);
-            sheet.setIsValid(true);
-            sheet.setFileName(input.getOriginalFilename());
-
-            setSheetCode(text, sheet);
-            setOkr(text, sheet);
-            setFaculty(text, sheet);
-            setEduYear(text, sheet);
-            setGroup(text, sheet);
-            setSubject(text, sheet);
-            setTerm(text, sheet);
-            setCreditPoints(text, sheet);
-            setControlForm(text, sheet);
-            setDate(text, sheet);
-            setTeacherName(text, sheet);
-            setTeacherRank(text, sheet);
-            setStudentData(table.trim(), sheet);
-            setDean(text, sheet);
-
-            if (sheet instanceof ChadStudentsSheet) {
-                ChadStudentsSheet chadSheet = (ChadStudentsSheet) sheet;
-                setPresent(text, chadSheet);
-                setMissing(text, chadSheet);
-                setBanned(text, chadSheet);
-            } else {
-                Bigunets bigunetsSheet = (Bigunets) sheet;
-                setCause(text, bigunetsSheet);
-                setExpiration(text, bigunetsSheet);
+        return parse(input, null);
+    }
+
+    @Override
+    public GradeSheet parse(MultipartFile input, ExtractionEngine engine) throws IOException {
+        try (SpooledUpload upload = pdfLoader.spool(input)) {
+            return parse(input.getOriginalFilename(), upload, engine);
+        }
+    }
+
+    @Override
+    public GradeSheet parse(String fileName, InputStream input) throws IOException {
+        try (SpooledUpload upload = pdfLoader.spool(input)) {
+            return parse(fileName, upload);
+        }
+    }
+
+    @Override
+    public GradeSheet parse(String fileName, SpooledUpload upload) throws IOException {
+        return parse(fileName, upload, null);
+    }
+
+    // .docx and .xlsx files are told by their name and read by POI, the engine only applies to PDFs;
+    // an engine asked for by name bypasses the cache, so engines can be compared on the same upload
+    private GradeSheet parse(String fileName, SpooledUpload upload, ExtractionEngine engine) throws IOException {
+        boolean hashed = textDumper.isEnabled() || resultCache.isEnabled();
+        // the upload is on disk in full, so a cached result is found without opening the document
+        byte[] uploadHash = hashed ? upload.digest(SpooledUpload.newDigest()) : null;
+        boolean cached = uploadHash != null && engine == null;
+        GradeSheet sheet = cached ? resultCache.get(uploadHash, fileName) : null;
+        if (sheet == null) {
+            SheetReader<GradeSheet> parseDocument = document -> {
+                metrics.recordDocument(document.getNumberOfPages(), upload.getSize());
+                return parseDocument(document, uploadHash, fileName);
+            };
+            OfficeFormat format = OfficeFormat.of(fileName);
+            sheet = format == null
+                    ? backends.get(engine).read(upload, parseDocument)
+                    : officeBackend.read(upload, format, parseDocument);
+            if (cached) resultCache.put(uploadHash, sheet);
+        }
+        metrics.recordRows(sheet.getStudentsData() == null ? 0 : sheet.getStudentsData().size());
+        metrics.recordSheet(Operation.PARSE, sheet.getIsValid());
+        return sheet;
+    }
+
+    private GradeSheet parseDocument(SheetDocument document, byte[] uploadHash, String fileName) throws IOException {
+        try (ParseContext context = contexts.borrow()) {
+            String leadingText = null;
+            if (textExtractor.isClassifying()) {
+                long started = System.nanoTime();
+                leadingText = document.getLeadingText();
+                boolean gradeSheet = isGradeSheet(context, normalize(context, leadingText));
+                metrics.recordStage(ParseStage.CLASSIFY, started);
+                if (!gradeSheet) throw new ParseStructuralError(UNKNOWN_DOCUMENT);
+            }
+            if (textExtractor.isTableMode()) {
+                long started = System.nanoTime();
+                TabularText tabular = document.getTabularText();
+                metrics.recordStage(ParseStage.STRIP, started);
+                if (tabular != null) {
+                    if (uploadHash != null) textDumper.dump(uploadHash, tabular.getText());
+                    return parseText(context, tabular.getText(), tabular.getTable(), fileName);
+                }
+            }
+            // a backend that cannot strip by area returns null before stripping anything
+            if (textExtractor.isRegionMode()) {
+                long started = System.nanoTime();
+                SheetRegions regions = document.getRegions();
+                metrics.recordStage(ParseStage.STRIP, started);
+                if (regions != null) {
+                    if (uploadHash != null) textDumper.dump(uploadHash, regions.getHeader() + "\n" + regions.getBody());
+                    return parseRegions(context, regions, fileName);
+                }
             }
-            return sheet;
+            long started = System.nanoTime();
+            String text = document.getText(leadingText);
+            metrics.recordStage(ParseStage.STRIP, started);
+            if (uploadHash != null) textDumper.dump(uploadHash, text);
+            return parseText(context, text, null, fileName);
+        }
+    }
+
+    GradeSheet parseText(String text, String fileName) {
+        try (ParseContext context = contexts.borrow()) {
+            return parseText(context, text, null, fileName);
+        }
+    }
+
+    /**
+     * @param table cells of the student rows, see {@link TabularText#getTable()}, or null to find the table in the text
+     */
+    private GradeSheet parseText(ParseContext context, String text, List<String[]> table, String fileName) {
+        long started = System.nanoTime();
+        text = normalize(context, text);
+        StudentRows rows = table == null
+                ? new StudentRowReader(findTable(context, text).trim())
+                : new TableRowReader(table);
+        metrics.recordStage(ParseStage.NORMALIZE, started);
+
+        started = System.nanoTime();
+        Map<HeaderField, MatchResult> header = HeaderExtractor.extract(text, context);
+        metrics.recordStage(ParseStage.HEADER, started);
+        return parseSheet(header, rows, fileName);
+    }
+
+    /**
+     * Parses a sheet whose header block and body were stripped separately.
+     * The column headings of the table end the header: the header fields are searched only before them, in the
+     * header block and in what of it is left in the body, as when the header is taller than usual. The footer
+     * fields are searched only after the footnote mark that ends the table, and the rows are read from between
+     * the two, so the table text is walked once, by the row reader. As in the whole text, a table without its
+     * headings or footnote mark has no rows.
+     */
+    private GradeSheet parseRegions(ParseContext context, SheetRegions regions, String fileName) {
+        long started = System.nanoTime();
+        String headerBlock = normalize(context, regions.getHeader());
+        String body = normalize(context, regions.getBody());
+        String header;
+        String rest;
+        Matcher tableHead = context.matcher(TABLE_HEAD_PATTERN, body);
+        if (tableHead.find()) {
+            header = normalize(context, headerBlock + " " + body.substring(0, tableHead.start()));
+            rest = body.substring(tableHead.end());
+        } else if ((tableHead = context.matcher(TABLE_HEAD_PATTERN, headerBlock)).find()) {
+            // the layout is shifted up, the table starts in the header block
+            header = headerBlock.substring(0, tableHead.start());
+            rest = headerBlock.substring(tableHead.end()) + " " + body;
+        } else {
+            header = headerBlock;
+            rest = null;
+        }
+        int tableEnd = rest == null ? -1 : rest.indexOf('*');
+        String table = tableEnd < 0 ? "" : rest.substring(0, tableEnd).trim();
+        String footer = rest == null ? body : tableEnd < 0 ? rest : rest.substring(tableEnd);
+        metrics.recordStage(ParseStage.NORMALIZE, started);
+
+        started = System.nanoTime();
+        Map<HeaderField, MatchResult> fields = HeaderExtractor.extract(header, context, HeaderField.HEADER);
+        fields.putAll(HeaderExtractor.extract(footer, context, HeaderField.FOOTER));
+        metrics.recordStage(ParseStage.HEADER, started);
+        return parseSheet(fields, new StudentRowReader(table), fileName);
+    }
+
+    private GradeSheet parseSheet(Map<HeaderField, MatchResult> header, StudentRows rows, String fileName) {
+        GradeSheet sheet = identifySheet(header);
+        sheet.setIsValid(true);
+        sheet.setFileName(fileName);
+
+        setSheetCode(header.get(HeaderField.SHEET_CODE), sheet);
+        setOkr(header.get(HeaderField.OKR), sheet);
+        setFaculty(header.get(HeaderField.FACULTY), sheet);
+        setEduYear(header.get(HeaderField.EDU_YEAR), sheet);
+        setGroup(header.get(HeaderField.GROUP), sheet);
+        setSubject(header.get(HeaderField.SUBJECT), sheet);
+        setTerm(header.get(HeaderField.TERM), sheet);
+        setCreditPoints(header.get(HeaderField.CREDIT_POINTS), sheet);
+        setControlForm(header.get(HeaderField.CONTROL_FORM), sheet);
+        setDate(header.get(HeaderField.DATE), sheet);
+        setTeacherName(header.get(HeaderField.TEACHER_NAME), sheet);
+        setTeacherRank(header.get(HeaderField.TEACHER_RANK), sheet);
+        long started = System.nanoTime();
+        AttendanceCount attendance = setStudentData(rows, sheet);
+        metrics.recordStage(ParseStage.TABLE, started);
+        setDean(header.get(HeaderField.DEAN), sheet);
+
+        if (sheet instanceof ChadStudentsSheet) {
+            ChadStudentsSheet chadSheet = (ChadStudentsSheet) sheet;
+            setPresent(header.get(HeaderField.PRESENT), chadSheet, attendance.getPresent());
+            setMissing(header.get(HeaderField.MISSING), chadSheet, attendance.getMissing());
+            setBanned(header.get(HeaderField.BANNED), chadSheet, attendance.getBanned());
+        } else {
+            Bigunets bigunetsSheet = (Bigunets) sheet;
+            setCause(header.get(HeaderField.CAUSE), bigunetsSheet);
+            setExpiration(header.get(HeaderField.EXPIRATION), bigunetsSheet);
         }
+        return sheet;
     }
 
-    private void setBanned(String text, ChadStudentsSheet chadSheet) {
-        long tableBanned = chadSheet.getStudentsData().stream()
-                .filter(studentData -> studentData.getNationalGrade() != null
-                        && studentData.getNationalGrade().replaceAll("\\s+", "")
-                        .matches("(?iu)недопущен((ий)|(а))")).count();
-        Pattern p = Pattern.compile("(?iu)кількість студентів, недопущених до екзамену\\s*/тези\\s*/заліку\\s*(\\d+)");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setBanned(MatchResult m, ChadStudentsSheet chadSheet, int tableBanned) {
+        if (m == null) {
             chadSheet.setBannedError(true);
             chadSheet.setIsValid(false);
             return;
@@ -153,14 +263,8 @@ public class ParseService implements IParser {
         if (chadSheet.isBannedError()) chadSheet.setIsValid(false);
     }
 
-    private void setMissing(String text, ChadStudentsSheet chadSheet) {
-        long tableAbsent = chadSheet.getStudentsData().stream()
-                .filter(studentData -> studentData.getNationalGrade() != null
-                        && studentData.getNationalGrade().replaceAll("\\s+", "")
-                        .matches("(?iu)невідвідув((ав)|(ла))")).count();
-        Pattern p = Pattern.compile("(?iu)кількість студентів, які не з’явились на екзамен\\s*/тезу\\s*/залік\\s*(\\d+)");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setMissing(MatchResult m, ChadStudentsSheet chadSheet, int tableAbsent) {
+        if (m == null) {
             chadSheet.setMissingError(true);
             chadSheet.setIsValid(false);
             return;
@@ -171,15 +275,8 @@ public class ParseService implements IParser {
         if (chadSheet.isMissingError()) chadSheet.setIsValid(false);
     }
 
-    private void setPresent(String text, ChadStudentsSheet chadSheet) {
-        long tablePresent = chadSheet.getStudentsData().stream()
-                .filter(studentData -> studentData.getNationalGrade() != null
-                        && studentData.getNationalGrade().replaceAll("\\s+", "")
-                        .matches("(?iu)(зараховано)|(незараховано)|(відмінно)|(добре)|(задовільно)|(незадовільно)"))
-                .count();
-        Pattern p = Pattern.compile("(?iu)Кількість студентів на екзамені\\s*/тезі\\s*/заліку\\s*(\\d+)");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setPresent(MatchResult m, ChadStudentsSheet chadSheet, int tablePresent) {
+        if (m == null) {
             chadSheet.setPresentError(true);
             chadSheet.setIsValid(false);
             return;
@@ -192,10 +289,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setExpiration(String text, Bigunets bigunetsSheet) {
-        Pattern p = Pattern.compile("(?iu)дійсне до\\s*\\W\\s*(\\d{2})\\s*\\W\\s*(\\p{IsCyrillic}+)\\s*(\\d{4})\\s*р\\.");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setExpiration(MatchResult m, Bigunets bigunetsSheet) {
+        if (m == null) {
             bigunetsSheet.setExpiresError("Відсутня або неповна дата дійсності направлення.");
             bigunetsSheet.setIsValid(false);
             return;
@@ -203,10 +298,8 @@ public class ParseService implements IParser {
         bigunetsSheet.setExpires(new CustomDate(Integer.parseInt(m.group(1)), m.group(2).trim(), Integer.parseInt(m.group(3))));
     }
 
-    private void setCause(String text, Bigunets bigunetsSheet) {
-        Pattern p = Pattern.compile("(?iu)причина перенесення((\\p{IsCyrillic}|\\s)+)\\b\\s*форма");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setCause(MatchResult m, Bigunets bigunetsSheet) {
+        if (m == null) {
             bigunetsSheet.setCauseError("Відсутня причина перенесення.");
             bigunetsSheet.setIsValid(false);
             return;
@@ -214,10 +307,8 @@ public class ParseService implements IParser {
         bigunetsSheet.setCause(m.group(1).trim());
     }
 
-    private void setDean(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)декан факультету((\\s+\\p{IsCyrillic}+){3})");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setDean(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setDeanError("Відсутній декан.");
             sheet.setIsValid(false);
             return;
@@ -225,37 +316,68 @@ public class ParseService implements IParser {
         sheet.setDean(m.group(1).trim());
     }
 
-    private void setStudentData(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?u)(\\d+)\\s+((\\p{IsCyrillic}{2,}\\s*){2,})?\\s*(І\\d?\\s*\\d{3}/\\d{2}\\s*((бп)|(мп)))?\\s*(\\d+)?\\s*(\\d+)?\\s*(\\d+)?\\s*([\\p{IsCyrillic} ]+)?\\s+(\\p{Alpha})?\\s*");
-        Matcher m = p.matcher(text); // 5 Димченко Микита Олегович І 016/10 мп Не відвідував F
-        while (m.find()) {
+    /**
+     * Replaces every run of underscores and every run of two or more whitespace characters with a single space,
+     * the same as {@code replaceAll("(_+)|(\\s{2,})", " ")}, in one walk over the text and the context's buffer.
+     */
+    static String normalize(ParseContext context, String text) {
+        int length = text.length();
+        StringBuilder normalized = null;
+        // text before copied is the same as the input and is only copied once something is replaced
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int end = i + 1;
+            if (c == '_') {
+                while (end < length && text.charAt(end) == '_') end++;
+            } else if (isSpace(c) && end < length && isSpace(text.charAt(end))) {
+                while (end < length && isSpace(text.charAt(end))) end++;
+            } else {
+                i = end;
+                continue;
+            }
+            if (normalized == null) normalized = context.buffer();
+            normalized.append(text, copied, i).append(' ');
+            copied = i = end;
+        }
+        return normalized == null ? text : normalized.append(text, copied, length).toString();
+    }
+
+    static String findTable(ParseContext context, String normalizedText) {
+        Matcher tableMatch = context.matcher(TABLE_PATTERN, normalizedText);
+        return tableMatch.find() ? tableMatch.group(1) : "";
+    }
+
+    /**
+     * @return attendance of the parsed students, as the footer of the sheet should report it
+     */
+    AttendanceCount setStudentData(StudentRows rows, GradeSheet sheet) {
+        ControlForm controlForm = ControlForm.of(sheet.getControlForm());
+        AttendanceCount attendance = new AttendanceCount();
+        while (rows.next()) { // 5 Димченко Микита Олегович І 016/10 мп Не відвідував F
             StudentData std = new StudentData();
-            std.setOrdinal(Integer.parseInt(m.group(1)));
-
-            if (m.group(2) != null) {
-                String[] fullName = m.group(2).trim().split("\\s+");
-                std.setSurname(fullName[0]);
-                std.setFirstName(fullName[1]);
-                if (fullName.length == 3) std.setLastName(fullName[2]);
-                if (Stream.of(fullName).anyMatch(x -> x.contains(".")))
+            std.setOrdinal(rows.getOrdinal());
+
+            if (rows.getNameWordCount() >= 2) {
+                std.setSurname(rows.getNameWord(0));
+                std.setFirstName(rows.getNameWord(1));
+                if (rows.getNameWordCount() == 3) std.setLastName(rows.getNameWord(2));
+                if (rows.nameContains('.'))
                     std.setNameError("Можливо ім'я містить скорочення");
             } else sheet.setIsValid(false);
 
-            if (m.group(4) != null)
-                std.setBookNo(m.group(4).trim());
-            else sheet.setIsValid(false);
+            std.setBookNo(rows.getBookNo());
+            if (std.getBookNo() == null) sheet.setIsValid(false);
 
-            if (m.group(8) != null)
-                std.setTermGrade(Integer.parseInt(m.group(8)));
-            else sheet.setIsValid(false);
+            std.setTermGrade(rows.getTermGrade());
+            if (std.getTermGrade() == null) sheet.setIsValid(false);
 
-            if (m.group(9) != null)
-                std.setExamGrade(Integer.parseInt(m.group(9)));
-            else sheet.setIsValid(false);
+            std.setExamGrade(rows.getExamGrade());
+            if (std.getExamGrade() == null) sheet.setIsValid(false);
 
-            if (m.group(10) != null)
-                std.setSum(Integer.parseInt(m.group(10)));
-            else sheet.setIsValid(false);
+            std.setSum(rows.getSum());
+            if (std.getSum() == null) sheet.setIsValid(false);
 
             if ((std.getSum() == null || std.getTermGrade() == null || std.getExamGrade() == null) ||
                     (std.getSum() != std.getTermGrade() + std.getExamGrade())) {
@@ -263,38 +385,31 @@ public class ParseService implements IParser {
                 sheet.setIsValid(false);
             }
 
-            final String normNatGrade = m.group(11) != null ?
-                    m.group(11).replaceAll("\\s+", "").toLowerCase()
-                    : null;
-            if (m.group(11) != null && NAT_GRADES_NORM_TO_CORRECT.containsKey(normNatGrade)) {
-                std.setNationalGrade(NAT_GRADES_NORM_TO_CORRECT.get(normNatGrade));
-                if (NATIONAL_ASSERTS.containsKey(normNatGrade) && std.getSum() != null) {
-                    if (!NATIONAL_ASSERTS.get(normNatGrade).apply(std.getSum())) {
-                        std.setNationalGradeError(true);
-                        sheet.setIsValid(false);
-                    }
+            final NationalGrade nationalGrade = NationalGrade.ofNormalized(rows.getNormalizedNationalGrade());
+            if (nationalGrade != null) {
+                std.setNationalGrade(nationalGrade.getName());
+                attendance.add(nationalGrade.getAttendance());
+                if (std.getSum() != null && !nationalGrade.accepts(std.getSum())) {
+                    std.setNationalGradeError(true);
+                    sheet.setIsValid(false);
                 }
             } else sheet.setIsValid(false);
 
-            if (sheet.getControlForm() == null || std.getNationalGrade() == null || !NATIONAL_GRADES.containsKey(sheet.getControlForm().toLowerCase())
-                    || !NATIONAL_GRADES.get(sheet.getControlForm().toLowerCase()).contains(std.getNationalGrade())) {
+            if (controlForm == null || nationalGrade == null || !nationalGrade.isAllowedIn(controlForm)) {
                 std.setNationalGradeError(true);
                 sheet.setIsValid(false);
             }
 
-            if (m.group(12) != null)
-                std.setEctsGrade(m.group(12).charAt(0));
-            else sheet.setIsValid(false);
+            std.setEctsGrade(rows.getEctsGrade());
+            if (std.getEctsGrade() == null) sheet.setIsValid(false);
 
-            if (std.getEctsGrade() == null || std.getSum() == null || !ECTS_ASSERTS.containsKey(std.getEctsGrade())
-                    || !ECTS_ASSERTS.get(std.getEctsGrade()).apply(std.getSum())) {
+            final EctsGrade ectsGrade = EctsGrade.of(std.getEctsGrade());
+            if (ectsGrade == null || std.getSum() == null || !ectsGrade.accepts(std.getSum())) {
                 std.setEctsGradeError(true);
                 sheet.setIsValid(false);
             }
 
-            if (std.getNationalGrade() != null &&
-                    ((std.getNationalGrade().equals("Не відвідував") || std.getNationalGrade().equals("Не відвідувала"))
-                            || (std.getNationalGrade().equals("Не допущений") || std.getNationalGrade().equals("Не допущена")))) {
+            if (nationalGrade != null && nationalGrade.isAbsence()) {
                 if (std.getSum() == null && std.getExamGrade() == null) {
                     std.setTermGradeError(null);
                     std.setExamGradeError(null);
@@ -306,12 +421,11 @@ public class ParseService implements IParser {
 
             sheet.addStudentData(std);
         }
+        return attendance;
     }
 
-    private void setTeacherRank(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu),(.+?)прізвище");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setTeacherRank(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setTeacherRankError("Відсутні ПІБ викладача.");
             sheet.setIsValid(false);
             return;
@@ -322,10 +436,8 @@ public class ParseService implements IParser {
         sheet.setTeacherRank(ranks);
     }
 
-    private void setTeacherName(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)р\\.?\\s*((\\b\\p{IsCyrillic}+\\s*){3}),");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setTeacherName(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setTeacherNameError("Відсутні або неповні ПІБ викладача.");
             sheet.setIsValid(false);
             return;
@@ -340,10 +452,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setDate(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)дата\\s*\\W\\s*(\\d{2})\\s*\\W\\s*(\\p{IsCyrillic}+)\\s*(\\d{4})\\s*р\\.");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setDate(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setDateError("Відсутня або неповна дата.");
             sheet.setDate(new CustomDate());
             sheet.setIsValid(false);
@@ -353,10 +463,8 @@ public class ParseService implements IParser {
         sheet.setDate(new CustomDate(Integer.parseInt(m.group(1)), m.group(2).trim(), Integer.parseInt(m.group(3))));
     }
 
-    private void setControlForm(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)форма контролю(:)?\\s*(\\p{IsCyrillic}+)\\b");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setControlForm(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setControlFormError("Відсутня форма контролю.");
             sheet.setIsValid(false);
             return;
@@ -368,10 +476,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setCreditPoints(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)залікові бали\\s*(\\d{1,2})");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setCreditPoints(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setCreditPointsError("Відсутні залікові бали.");
             sheet.setIsValid(false);
             return;
@@ -379,10 +485,8 @@ public class ParseService implements IParser {
         sheet.setCreditPoints(Integer.parseInt(m.group(1)));
     }
 
-    private void setTerm(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)семестр\\s*(\\dд?)");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setTerm(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setTermError("Відсутній семестр.");
             sheet.setIsValid(false);
             return;
@@ -395,11 +499,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setSubject(String text, GradeSheet sheet) {
-//        Pattern p = Pattern.compile("(?iu)дисципліна\\s*((\\p{IsCyrillic}|\\w|\\s)+?)\\s*семестр");
-        Pattern p = Pattern.compile("(?iu)дисципліна\\s*(.+?)\\s*семестр");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setSubject(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setSubjectError("Відсутня дисципліна.");
             sheet.setIsValid(false);
             return;
@@ -407,10 +508,8 @@ public class ParseService implements IParser {
         sheet.setSubject(m.group(1));
     }
 
-    private void setGroup(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)група\\s*((\\p{IsCyrillic}|\\d)+)\\b");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setGroup(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setGroupError("Відсутня група.");
             sheet.setIsValid(false);
             return;
@@ -422,10 +521,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setEduYear(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)Рік навчання\\s*(\\d)");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setEduYear(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setEduYearError("Відсутній рік навчання.");
             sheet.setIsValid(false);
             return;
@@ -446,10 +543,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setFaculty(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)факультет\\s+((\\p{IsCyrillic}|\\s)+)\\s+рік");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setFaculty(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setFacultyError("Відсутній факультет.");
             sheet.setIsValid(false);
             return;
@@ -457,10 +552,8 @@ public class ParseService implements IParser {
         sheet.setFaculty(m.group(1).trim());
     }
 
-    private void setOkr(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)\\bосвітній рівень\\s*(\\p{IsCyrillic}+?)\\b");
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setOkr(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setOkrError("Відсутній освітній рівень.");
             sheet.setIsValid(false);
             return;
@@ -472,10 +565,8 @@ public class ParseService implements IParser {
         }
     }
 
-    private void setSheetCode(String text, GradeSheet sheet) {
-        Pattern p = Pattern.compile("(?iu)№\\s*(\\d+?)\\s*освітній"); // use \b?
-        Matcher m = p.matcher(text);
-        if (!m.find()) {
+    private void setSheetCode(MatchResult m, GradeSheet sheet) {
+        if (m == null) {
             sheet.setSheetCodeError("Відсутній номер відомості.");
             sheet.setIsValid(false);
             return;
@@ -485,29 +576,149 @@ public class ParseService implements IParser {
 
     @Override
     public ChadStudentsSheet validate(ChadSheetCore input) {
+        long started = System.nanoTime();
         ChadSheetCore basicChecked = validateGradeSheet(input);
         ChadStudentsSheet chadSheet = new ChadStudentsSheet();
-        BeanUtils.copyProperties(basicChecked, chadSheet);
-        setPresent(chadSheet, input);
-        setMissing(chadSheet, input);
-        setBanned(chadSheet, input);
+        ModelCopier.copy(basicChecked, chadSheet);
+        AttendanceCount attendance = countAttendance(chadSheet.getStudentsData());
+        setPresent(chadSheet, input.getPresent(), attendance.getPresent());
+        setMissing(chadSheet, input.getMissing(), attendance.getMissing());
+        setBanned(chadSheet, input.getBanned(), attendance.getBanned());
+        metrics.recordStage(ParseStage.VALIDATE, started);
+        metrics.recordSheet(Operation.CHECK_CHAD, chadSheet.getIsValid());
         return chadSheet;
     }
 
-    private GradeSheet identifySheet(String str) {
-        Pattern p = Pattern.compile("(?iu)заліково[- ]?екзаменаційна\\s*відомість");
-        Matcher matcher = p.matcher(str);
-        if (matcher.find())
+    @Override
+    public SheetCheck check(ChadSheetCore input) {
+        long started = System.nanoTime();
+        ChadStudentsSheet chadSheet = new ChadStudentsSheet();
+        ModelCopier.copy(input, chadSheet);
+        SheetCheck check = new SheetCheck(chadSheet);
+        checkHeader(check);
+        ControlForm controlForm = ControlForm.of(chadSheet.getControlForm());
+        for (int i = 0; i < chadSheet.getStudentsData().size(); i++)
+            checkRow(check, i, controlForm);
+        checkFooter(check);
+        metrics.recordStage(ParseStage.VALIDATE, started);
+        metrics.recordSheet(Operation.CHECK_CHAD, chadSheet.getIsValid());
+        return check;
+    }
+
+    @Override
+    public void recheck(SheetCheck check, ChadSheetCore changes) {
+        long started = System.nanoTime();
+        ChadStudentsSheet chadSheet = check.getSheet();
+        List<StudentData> changedRows = changes.getStudentsData() == null
+                ? Collections.emptyList() : changes.getStudentsData();
+        int[] changedIndices = new int[changedRows.size()];
+        for (int i = 0; i < changedRows.size(); i++) {
+            Integer index = check.indexOf(changedRows.get(i).getOrdinal());
+            if (index == null)
+                throw new ParseStructuralError("У відомості немає студента з номером " + changedRows.get(i).getOrdinal() + ".");
+            changedIndices[i] = index;
+        }
+
+        ControlForm oldControlForm = ControlForm.of(chadSheet.getControlForm());
+        applyHeaderChanges(changes, chadSheet);
+        checkHeader(check);
+        for (int i = 0; i < changedRows.size(); i++)
+            applyRowChanges(changedRows.get(i), chadSheet.getStudentsData().get(changedIndices[i]));
+
+        // the national grade of every row depends on the control form
+        ControlForm controlForm = ControlForm.of(chadSheet.getControlForm());
+        if (controlForm != oldControlForm) {
+            for (int i = 0; i < chadSheet.getStudentsData().size(); i++)
+                checkRow(check, i, controlForm);
+        } else {
+            for (int index : changedIndices)
+                checkRow(check, index, controlForm);
+        }
+        checkFooter(check);
+        metrics.recordStage(ParseStage.VALIDATE, started);
+        metrics.recordSheet(Operation.RECHECK_CHAD, chadSheet.getIsValid());
+    }
+
+    private void checkHeader(SheetCheck check) {
+        ChadStudentsSheet chadSheet = check.getSheet();
+        chadSheet.resetHeaderDefaults();
+        chadSheet.setIsValid(true);
+        validateHeader(chadSheet);
+        check.setHeaderValid(chadSheet.getIsValid());
+    }
+
+    private void checkRow(SheetCheck check, int index, ControlForm controlForm) {
+        StudentData std = check.getSheet().getStudentsData().get(index);
+        std.resetDefaults();
+        check.setRow(index, validateStudent(std, controlForm), attendanceOf(std));
+    }
+
+    private void checkFooter(SheetCheck check) {
+        ChadStudentsSheet chadSheet = check.getSheet();
+        chadSheet.setIsValid(check.isHeaderValid() && check.getInvalidRows() == 0);
+        chadSheet.setPresentError(false);
+        chadSheet.setMissingError(false);
+        chadSheet.setBannedError(false);
+        AttendanceCount attendance = check.getAttendance();
+        setPresent(chadSheet, chadSheet.getPresent(), attendance.getPresent());
+        setMissing(chadSheet, chadSheet.getMissing(), attendance.getMissing());
+        setBanned(chadSheet, chadSheet.getBanned(), attendance.getBanned());
+    }
+
+    // resetHeaderDefaults leaves the footer *Changed flags alone, so every edit sets them afresh
+    private static void applyHeaderChanges(ChadSheetCore changes, ChadStudentsSheet sheet) {
+        if (changes.isSheetCodeChanged()) sheet.setSheetCode(changes.getSheetCode());
+        if (changes.isOkrChanged()) sheet.setOkr(changes.getOkr());
+        if (changes.isFacultyChanged()) sheet.setFaculty(changes.getFaculty());
+        if (changes.isEduYearChanged()) sheet.setEduYear(changes.getEduYear());
+        if (changes.isGroupChanged()) sheet.setGroup(changes.getGroup());
+        if (changes.isSubjectChanged()) sheet.setSubject(changes.getSubject());
+        if (changes.isTermChanged()) sheet.setTerm(changes.getTerm());
+        if (changes.isCreditPointsChanged()) sheet.setCreditPoints(changes.getCreditPoints());
+        if (changes.isControlFormChanged()) sheet.setControlForm(changes.getControlForm());
+        if (changes.isDateChanged()) sheet.setDate(changes.getDate());
+        if (changes.isTeacherSurnameChanged()) sheet.setTeacherSurname(changes.getTeacherSurname());
+        if (changes.isTeacherFirstnameChanged()) sheet.setTeacherFirstname(changes.getTeacherFirstname());
+        if (changes.isTeacherLastnameChanged()) sheet.setTeacherLastname(changes.getTeacherLastname());
+        if (changes.isTeacherRankChanged()) sheet.setTeacherRank(changes.getTeacherRank());
+        if (changes.isDeanChanged()) sheet.setDean(changes.getDean());
+        sheet.setPresentChanged(changes.isPresentChanged());
+        if (changes.isPresentChanged()) sheet.setPresent(changes.getPresent());
+        sheet.setMissingChanged(changes.isMissingChanged());
+        if (changes.isMissingChanged()) sheet.setMissing(changes.getMissing());
+        sheet.setBannedChanged(changes.isBannedChanged());
+        if (changes.isBannedChanged()) sheet.setBanned(changes.getBanned());
+    }
+
+    // checkRow resets the row's *Changed flags, as a full check does
+    private static void applyRowChanges(StudentData changes, StudentData row) {
+        if (changes.isSurnameChanged()) row.setSurname(changes.getSurname());
+        if (changes.isFirstNameChanged()) row.setFirstName(changes.getFirstName());
+        if (changes.isLastNameChanged()) row.setLastName(changes.getLastName());
+        if (changes.isBookNoChanged()) row.setBookNo(changes.getBookNo());
+        if (changes.isTermGradeChanged()) row.setTermGrade(changes.getTermGrade());
+        if (changes.isExamGradeChanged()) row.setExamGrade(changes.getExamGrade());
+        if (changes.isSumChanged()) row.setSum(changes.getSum());
+        if (changes.isNationalGradeChanged()) row.setNationalGrade(changes.getNationalGrade());
+        if (changes.isEctsGradeChanged()) row.setEctsGrade(changes.getEctsGrade());
+    }
+
+    private GradeSheet identifySheet(Map<HeaderField, MatchResult> header) {
+        if (header.containsKey(HeaderField.CHAD_SHEET_TYPE))
             return new ChadStudentsSheet();
-        p = Pattern.compile("(?iu)заліково[- ]?екзаменаційний\\s*листок");
-        matcher = p.matcher(str);
-        if (matcher.find())
+        if (header.containsKey(HeaderField.BIGUNETS_SHEET_TYPE))
             return new Bigunets();
-        throw new ParseStructuralError("Не вдалося визначити тип заліково-екзаменаційного документу.");
+        throw new ParseStructuralError(UNKNOWN_DOCUMENT);
+    }
+
+    private static boolean isGradeSheet(ParseContext context, String normalizedText) {
+        return context.matcher(HeaderField.CHAD_SHEET_TYPE.getPattern(), normalizedText).find()
+                || context.matcher(HeaderField.BIGUNETS_SHEET_TYPE.getPattern(), normalizedText).find();
     }
 
     @Override
     public Bigunets validate(Bigunets input) {
+        long started = System.nanoTime();
         Bigunets basicChecked = validateGradeSheet(input);
         if (input.getCause() == null || input.getCause().matches("\\s*")) {
             input.setCauseError("Причина перенесення не вказана.");
@@ -517,10 +728,18 @@ public class ParseService implements IParser {
             input.setExpiresError("Дата 'дісне до' не вказана.");
             input.setIsValid(false);
         }
+        metrics.recordStage(ParseStage.VALIDATE, started);
+        metrics.recordSheet(Operation.CHECK_BIGUNETS, basicChecked.getIsValid());
         return basicChecked;
     }
 
     private <T extends GradeSheet> T validateGradeSheet(T sheet) {
+        validateHeader(sheet);
+        validateStudentData(sheet);
+        return sheet;
+    }
+
+    private void validateHeader(GradeSheet sheet) {
         if (sheet.getSheetCode() == null) {
             sheet.setSheetCodeError("Бракує коду відомості.");
             sheet.setIsValid(false);
@@ -615,131 +834,162 @@ public class ParseService implements IParser {
             sheet.setDeanError("ПІБ декана відсутні.");
             sheet.setIsValid(false);
         }
-
-        validateStudentData(sheet);
-        return sheet;
     }
 
     private void validateStudentData(GradeSheet sheet) {
-        sheet.getStudentsData().forEach(std -> {
-            if (std.getSurname() == null || std.getSurname().matches("\\s*") || std.getSurname().contains(".")
-                    || std.getFirstName() == null || std.getFirstName().matches("\\s*") || std.getFirstName().contains(".")
-                    || (std.getLastName() != null && (std.getLastName().matches("\\s+") || std.getLastName().contains(".")))) {
-                std.setNameError("Неправильно сформоване ім'я в номера " + std.getOrdinal());
-                sheet.setIsValid(false);
-            }
+        final ControlForm controlForm = ControlForm.of(sheet.getControlForm());
+        for (StudentData std : sheet.getStudentsData())
+            if (!validateStudent(std, controlForm)) sheet.setIsValid(false);
+    }
 
-            if (std.getBookNo() == null) {
-                std.setBookNoError("Відсутній код залікової книжки у номера " + std.getOrdinal());
-                sheet.setIsValid(false);
-            } else if (!std.getBookNo().matches("І \\d{3}/\\d{2}\\s*((бп)|(мп))")) {
-                std.setBookNoError("Неправильно сформований код залікової книжки у номера " + std.getOrdinal());
-                sheet.setIsValid(false);
-            }
+    /**
+     * @return false if any check of the row failed, even when its errors were then cleared for an absent student
+     */
+    private boolean validateStudent(StudentData std, ControlForm controlForm) {
+        boolean valid = true;
+        if (isBlank(std.getSurname()) || std.getSurname().contains(".")
+                || isBlank(std.getFirstName()) || std.getFirstName().contains(".")
+                || (std.getLastName() != null && (!std.getLastName().isEmpty() && isBlank(std.getLastName())
+                || std.getLastName().contains(".")))) {
+            std.setNameError("Неправильно сформоване ім'я в номера " + std.getOrdinal());
+            valid = false;
+        }
+
+        if (std.getBookNo() == null) {
+            std.setBookNoError("Відсутній код залікової книжки у номера " + std.getOrdinal());
+            valid = false;
+        } else if (!isBookNo(std.getBookNo())) {
+            std.setBookNoError("Неправильно сформований код залікової книжки у номера " + std.getOrdinal());
+            valid = false;
+        }
+
+        if (std.getTermGrade() == null) {
+            std.setTermGradeError("Нема оцінки за трим.");
+            valid = false;
+        } else if (std.getTermGrade() < 0 || std.getTermGrade() > 100) {
+            std.setTermGradeError("Оцінка може бути від 0 до 100.");
+            valid = false;
+        }
+
+        if (std.getExamGrade() == null) {
+            std.setExamGradeError("Нема оцінки за залік/екзамен.");
+            valid = false;
+        }
+//        else if (std.getExamGrade() < 0 || std.getExamGrade() > 40) {
+//            std.setExamGradeError("Оцінки за підсумкові роботи можуть бути від 0 до 40.");
+//            valid = false;
+//        }
 
-            if (std.getTermGrade() == null) {
-                std.setTermGradeError("Нема оцінки за трим.");
-                sheet.setIsValid(false);
-            } else if (std.getTermGrade() < 0 || std.getTermGrade() > 100) {
-                std.setTermGradeError("Оцінка може бути від 0 до 100.");
-                sheet.setIsValid(false);
-            }
+        if (std.getSum() == null || std.getExamGrade() == null || std.getEctsGrade() == null
+                || std.getSum() != std.getTermGrade() + std.getExamGrade()) {
+            std.setSumError(true);
+            valid = false;
+        }
 
-            if (std.getExamGrade() == null) {
-                std.setExamGradeError("Нема оцінки за залік/екзамен.");
-                sheet.setIsValid(false);
-            }
-//            else if (std.getExamGrade() < 0 || std.getExamGrade() > 40) {
-//                std.setExamGradeError("Оцінки за підсумкові роботи можуть бути від 0 до 40.");
-//                sheet.setIsValid(false);
-//            }
+        final NationalGrade nationalGrade = NationalGrade.of(std.getNationalGrade());
+        if (controlForm == null || nationalGrade == null || !nationalGrade.isAllowedIn(controlForm)) {
+            std.setNationalGradeError(true);
+            valid = false;
+        } else if (std.getSum() != null && !nationalGrade.accepts(std.getSum())) {
+            std.setNationalGradeError(true);
+            valid = false;
+        }
 
-            if (std.getSum() == null || std.getExamGrade() == null || std.getEctsGrade() == null
-                    || std.getSum() != std.getTermGrade() + std.getExamGrade()) {
-                std.setSumError(true);
-                sheet.setIsValid(false);
-            }
+        final EctsGrade ectsGrade = EctsGrade.of(std.getEctsGrade());
+        if (std.getExamGrade() == null || std.getSum() == null || ectsGrade == null || !ectsGrade.accepts(std.getSum())) {
+            std.setEctsGradeError(true);
+            valid = false;
+        }
 
-            if (sheet.getControlForm() == null || !NATIONAL_GRADES.containsKey(sheet.getControlForm().toLowerCase()) ||
-                    std.getNationalGrade() == null || !NATIONAL_GRADES.get(sheet.getControlForm().toLowerCase()).contains(std.getNationalGrade())) {
-                std.setNationalGradeError(true);
-                sheet.setIsValid(false);
-            } else {
-                final String normNatGrade = std.getNationalGrade().replaceAll("\\s+", "").toLowerCase();
-                if (NATIONAL_ASSERTS.containsKey(normNatGrade) && std.getSum() != null) {
-                    if (!NATIONAL_ASSERTS.get(normNatGrade).apply(std.getSum())) {
-                        std.setNationalGradeError(true);
-                        sheet.setIsValid(false);
-                    }
-                }
+        if (nationalGrade != null && nationalGrade.isAbsence()) {
+            if (std.getSum() == null && std.getExamGrade() == null) {
+                std.setTermGradeError(null);
+                std.setExamGradeError(null);
+                std.setSumError(false);
+                std.setNationalGradeError(false);
+                std.setEctsGradeError(false);
             }
+        }
+        return valid;
+    }
 
-            if (std.getExamGrade() == null || std.getSum() == null
-                    || !ECTS_ASSERTS.get(std.getEctsGrade()).apply(std.getSum())) {
-                std.setEctsGradeError(true);
-                sheet.setIsValid(false);
-            }
+    private static AttendanceCount countAttendance(List<StudentData> studentsData) {
+        AttendanceCount attendance = new AttendanceCount();
+        for (StudentData std : studentsData) attendance.add(attendanceOf(std));
+        return attendance;
+    }
 
-            if (std.getNationalGrade() != null &&
-                    ((std.getNationalGrade().equals("Не відвідував") || std.getNationalGrade().equals("Не відвідувала"))
-                            || (std.getNationalGrade().equals("Не допущений") || std.getNationalGrade().equals("Не допущена")))) {
-                if (std.getSum() == null && std.getExamGrade() == null) {
-                    std.setTermGradeError(null);
-                    std.setExamGradeError(null);
-                    std.setSumError(false);
-                    std.setNationalGradeError(false);
-                    std.setEctsGradeError(false);
-                }
-            }
-        });
+    private static Attendance attendanceOf(StudentData std) {
+        if (std.getNationalGrade() == null) return null;
+        if (std.getNationalGrade().equalsIgnoreCase("Не відвідував")) return Attendance.MISSING;
+        if (std.getNationalGrade().equalsIgnoreCase("Не допущений")) return Attendance.BANNED;
+        return Attendance.PRESENT;
     }
 
-    private void setPresent(ChadStudentsSheet chadSheet, ChadSheetCore input) {
-        if (input.getPresent() == null) {
+    private void setPresent(ChadStudentsSheet chadSheet, Integer present, int dataPresent) {
+        if (present == null) {
             chadSheet.setPresentError(true);
             chadSheet.setIsValid(false);
             return;
         }
-        chadSheet.setPresent(input.getPresent());
-        long dataPresent = chadSheet.getStudentsData().stream()
-                .filter(std -> std.getNationalGrade() != null && !(std.getNationalGrade().equalsIgnoreCase("Не відвідував")
-                        || std.getNationalGrade().equalsIgnoreCase("Не допущений"))).count();
-
+        chadSheet.setPresent(present);
         if (chadSheet.getPresent() != dataPresent) {
             chadSheet.setPresentError(true);
             chadSheet.setIsValid(false);
         }
     }
 
-    private void setMissing(ChadStudentsSheet chadSheet, ChadSheetCore input) {
-        if (input.getMissing() == null) {
+    private void setMissing(ChadStudentsSheet chadSheet, Integer missing, int dataMissing) {
+        if (missing == null) {
             chadSheet.setMissingError(true);
             chadSheet.setIsValid(false);
             return;
         }
-        chadSheet.setMissing(input.getMissing());
-        long dataMissing = chadSheet.getStudentsData().stream()
-                .filter(std -> std.getNationalGrade() != null && std.getNationalGrade().equalsIgnoreCase("Не відвідував")).count();
-
+        chadSheet.setMissing(missing);
         if (chadSheet.getMissing() != dataMissing) {
             chadSheet.setMissingError(true);
             chadSheet.setIsValid(false);
         }
     }
 
-    private void setBanned(ChadStudentsSheet chadSheet, ChadSheetCore input) {
-        if (input.getBanned() == null) {
+    private void setBanned(ChadStudentsSheet chadSheet, Integer banned, int dataBanned) {
+        if (banned == null) {
             chadSheet.setBannedError(true);
             chadSheet.setIsValid(false);
             return;
         }
-        chadSheet.setBanned(input.getBanned());
-        long dataBanned = chadSheet.getStudentsData().stream()
-                .filter(std -> std.getNationalGrade() != null && std.getNationalGrade().equalsIgnoreCase("Не допущений")).count();
-
+        chadSheet.setBanned(banned);
         if (chadSheet.getBanned() != dataBanned) {
             chadSheet.setBannedError(true);
             chadSheet.setIsValid(false);
         }
     }
+
+    // same as matches("\\s*"), null counts as blank
+    private static boolean isBlank(String s) {
+        if (s == null) return true;
+        for (int i = 0; i < s.length(); i++)
+            if (!isSpace(s.charAt(i))) return false;
+        return true;
+    }
+
+    // same as matches("І \\d{3}/\\d{2}\\s*((бп)|(мп))")
+    private static boolean isBookNo(String s) {
+        int length = s.length();
+        if (length < 10 || s.charAt(0) != 'І' || s.charAt(1) != ' ' || s.charAt(5) != '/'
+                || !isDigit(s.charAt(2)) || !isDigit(s.charAt(3)) || !isDigit(s.charAt(4))
+                || !isDigit(s.charAt(6)) || !isDigit(s.charAt(7)))
+            return false;
+        for (int i = 8; i < length - 2; i++)
+            if (!isSpace(s.charAt(i))) return false;
+        return (s.charAt(length - 2) == 'б' || s.charAt(length - 2) == 'м') && s.charAt(length - 1) == 'п';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
 }
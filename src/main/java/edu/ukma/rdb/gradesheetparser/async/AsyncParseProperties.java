@@ -0,0 +1,23 @@
+package edu.ukma.rdb.gradesheetparser.async;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.async")
+public class AsyncParseProperties {
+    /**
+     * Threads that parse single uploads, off the servlet request threads.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * Uploads waiting for a thread; further uploads are rejected with 429 until the queue drains.
+     */
+    private int queueCapacity = 32;
+    /**
+     * Value of the Retry-After header sent with a rejection.
+     */
+    private int retryAfterSeconds = 5;
+}
@@ -0,0 +1,57 @@
+package edu.ukma.rdb.gradesheetparser.async;
+
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseQueueFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs parse requests on a dedicated, bounded pool so that uploads never hold servlet threads
+ * and the cheap endpoints stay responsive during upload spikes.
+ * A request that finds the queue full is rejected at once instead of waiting.
+ */
+@Component
+public class ParseExecutor implements DisposableBean {
+    private final AsyncParseProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public ParseExecutor(AsyncParseProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "parser-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        registry.gauge("parser.async.queued", executor.getQueue(), BlockingQueue::size);
+        registry.gauge("parser.async.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ParseQueueFullException("Забагато запитів на обробку, спробуйте пізніше.",
+                    properties.getRetryAfterSeconds());
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
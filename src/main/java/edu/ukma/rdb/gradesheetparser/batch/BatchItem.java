@@ -0,0 +1,28 @@
+package edu.ukma.rdb.gradesheetparser.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import edu.ukma.rdb.gradesheetparser.pdf.SpooledUpload;
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * One file of a batch. Files that cannot be parsed at all (e.g. too large) carry an error instead of content.
+ */
+@Value
+@AllArgsConstructor
+public class BatchItem {
+    String fileName;
+    InputStreamSource source;
+    String error;
+
+    public BatchItem(String fileName, InputStreamSource source) {
+        this(fileName, source, null);
+    }
+
+    /**
+     * Deletes the temporary file of a spooled item.
+     */
+    public void discard() {
+        if (source instanceof SpooledUpload) ((SpooledUpload) source).close();
+    }
+}
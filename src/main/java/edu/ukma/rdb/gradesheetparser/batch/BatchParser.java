@@ -0,0 +1,297 @@
+package edu.ukma.rdb.gradesheetparser.batch;
+
+import edu.ukma.rdb.gradesheetparser.IParser;
+import edu.ukma.rdb.gradesheetparser.exceptions.DocumentTooLargeException;
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import edu.ukma.rdb.gradesheetparser.models.BatchParseResult;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.pdf.PdfDocumentLoader;
+import edu.ukma.rdb.gradesheetparser.pdf.SpooledUpload;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Parses many uploads at once on a shared, bounded worker pool.
+ * Every file gets its own {@link BatchParseResult}; a file that fails to parse only fails its own entry.
+ * ZIP entries are spooled to temporary files, and every spooled file is deleted as soon as it is parsed.
+ */
+@Slf4j
+@Service
+public class BatchParser implements DisposableBean {
+    private final IParser parser;
+    private final PdfDocumentLoader pdfLoader;
+    private final BatchProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public BatchParser(IParser parser, PdfDocumentLoader pdfLoader, BatchProperties properties) {
+        this.parser = parser;
+        this.pdfLoader = pdfLoader;
+        this.properties = properties;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "batch-parser-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Parses all files and returns their results in upload order.
+     */
+    public List<BatchParseResult> parse(List<MultipartFile> inputs) throws IOException {
+        return parseItems(items(sink -> collect(inputs, false, sink)));
+    }
+
+    public List<BatchParseResult> parseZip(InputStream zip) throws IOException {
+        return parseItems(items(sink -> readZip(zip, sink)));
+    }
+
+    /**
+     * Parses all files and hands every result to {@code sink} as soon as it is ready, in completion order.
+     * Only a few files are parsed at a time, however large the batch is.
+     */
+    public void parse(List<MultipartFile> inputs, ResultSink sink) throws IOException {
+        StreamingRun run = new StreamingRun((index, result) -> sink.accept(result));
+        collect(inputs, false, run::submit);
+        run.finish();
+    }
+
+    public void parseZip(InputStream zip, ResultSink sink) throws IOException {
+        StreamingRun run = new StreamingRun((index, result) -> sink.accept(result));
+        readZip(zip, run::submit);
+        run.finish();
+    }
+
+    /**
+     * Spools all uploads to temporary files, unpacking ZIP archives, so they can be parsed after the request is over.
+     * Parsing discards the items; the caller {@link BatchItem#discard() discards} any it does not parse.
+     */
+    public List<BatchItem> spool(List<MultipartFile> inputs) throws IOException {
+        return items(sink -> collect(inputs, true, sink));
+    }
+
+    public List<BatchItem> spoolZip(InputStream zip) throws IOException {
+        return items(sink -> readZip(zip, sink));
+    }
+
+    /**
+     * Parses spooled files, handing every result to {@code sink} with its position in {@code items}
+     * as soon as it is ready.
+     */
+    public void parse(List<BatchItem> items, IndexedResultSink sink) throws IOException {
+        StreamingRun run = new StreamingRun(sink);
+        for (BatchItem item : items) run.submit(item);
+        run.finish();
+    }
+
+    private List<BatchItem> items(ItemSource source) throws IOException {
+        List<BatchItem> items = new ArrayList<>();
+        try {
+            source.read(item -> addItem(items, item));
+        } catch (IOException | RuntimeException e) {
+            items.forEach(BatchItem::discard);
+            throw e;
+        }
+        return items;
+    }
+
+    // ZIP entries are always spooled; other uploads only when they must outlive the request
+    private void collect(List<MultipartFile> inputs, boolean spool, ItemSink items) throws IOException {
+        for (MultipartFile input : inputs) {
+            if (isZip(input.getOriginalFilename(), input.getContentType())) {
+                try (InputStream zip = input.getInputStream()) {
+                    readZip(zip, items);
+                }
+            } else if (spool) {
+                items.add(spoolFile(input));
+            } else {
+                items.add(new BatchItem(input.getOriginalFilename(), input));
+            }
+        }
+    }
+
+    private BatchItem spoolFile(MultipartFile input) throws IOException {
+        try {
+            return new BatchItem(input.getOriginalFilename(), pdfLoader.spool(input));
+        } catch (DocumentTooLargeException e) {
+            return new BatchItem(input.getOriginalFilename(), null, e.getMessage());
+        }
+    }
+
+    private List<BatchParseResult> parseItems(List<BatchItem> items) {
+        List<Future<BatchParseResult>> pending = new ArrayList<>(items.size());
+        try {
+            for (BatchItem item : items)
+                pending.add(executor.submit(() -> parseItem(item)));
+
+            List<BatchParseResult> results = new ArrayList<>(items.size());
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    results.add(pending.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pending.forEach(f -> f.cancel(true));
+                    throw new IllegalStateException("Пакетну обробку перервано.", e);
+                } catch (ExecutionException e) {
+                    results.add(failure(items.get(i).getFileName(), e.getCause()));
+                }
+            }
+            return results;
+        } finally {
+            // files that were never parsed, e.g. after an interrupt
+            items.forEach(BatchItem::discard);
+        }
+    }
+
+    private BatchParseResult parseItem(BatchItem item) {
+        if (item.getError() != null)
+            return new BatchParseResult(item.getFileName(), null, item.getError());
+        try {
+            return new BatchParseResult(item.getFileName(), parse(item), null);
+        } catch (Exception e) {
+            return failure(item.getFileName(), e);
+        } finally {
+            item.discard();
+        }
+    }
+
+    private GradeSheet parse(BatchItem item) throws IOException {
+        if (item.getSource() instanceof SpooledUpload)
+            return parser.parse(item.getFileName(), (SpooledUpload) item.getSource());
+        if (item.getSource() instanceof MultipartFile)
+            return parser.parse((MultipartFile) item.getSource());
+        try (InputStream input = item.getSource().getInputStream()) {
+            return parser.parse(item.getFileName(), input);
+        }
+    }
+
+    private BatchParseResult failure(String fileName, Throwable e) {
+        if (e instanceof ParseStructuralError || e instanceof DocumentTooLargeException || e instanceof IOException)
+            return new BatchParseResult(fileName, null, e.getMessage());
+        log.warn("Failed to parse {}", fileName, e);
+        return new BatchParseResult(fileName, null, "Не вдалося обробити файл.");
+    }
+
+    private void readZip(InputStream input, ItemSink items) throws IOException {
+        ZipInputStream zip = new ZipInputStream(input);
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry())
+            if (!entry.isDirectory()) items.add(spoolEntry(entry.getName(), zip));
+    }
+
+    private BatchItem spoolEntry(String fileName, ZipInputStream zip) throws IOException {
+        try {
+            return new BatchItem(fileName, pdfLoader.spool(zip, properties.getMaxEntryBytes()));
+        } catch (DocumentTooLargeException e) {
+            return new BatchItem(fileName, null, "Файл у архіві завеликий.");
+        }
+    }
+
+    private void addItem(List<BatchItem> items, BatchItem item) {
+        if (items.size() == properties.getMaxFiles()) {
+            item.discard();
+            throw new ParseStructuralError(tooManyFiles());
+        }
+        items.add(item);
+    }
+
+    private String tooManyFiles() {
+        return "Забагато файлів у пакеті, максимум " + properties.getMaxFiles() + ".";
+    }
+
+    private static boolean isZip(String fileName, String contentType) {
+        return (fileName != null && fileName.toLowerCase().endsWith(".zip"))
+                || "application/zip".equals(contentType) || "application/x-zip-compressed".equals(contentType);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(BatchParseResult result) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface IndexedResultSink {
+        void accept(int index, BatchParseResult result) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ItemSink {
+        void add(BatchItem item) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ItemSource {
+        void read(ItemSink items) throws IOException;
+    }
+
+    /**
+     * Keeps at most two files per worker in flight and passes results on as they complete.
+     */
+    private class StreamingRun {
+        private final IndexedResultSink sink;
+        private final CompletionService<Completed> completed = new ExecutorCompletionService<>(executor);
+        private final int window = 2 * properties.getThreads();
+        private int submitted;
+        private int inFlight;
+        private boolean limitReported;
+
+        StreamingRun(IndexedResultSink sink) {
+            this.sink = sink;
+        }
+
+        void submit(BatchItem item) throws IOException {
+            if (submitted == properties.getMaxFiles()) {
+                item.discard();
+                if (!limitReported) sink.accept(submitted, new BatchParseResult(item.getFileName(), null, tooManyFiles()));
+                limitReported = true;
+                return;
+            }
+            int index = submitted++;
+            while (inFlight >= window) emitNext();
+            completed.submit(() -> new Completed(index, parseItem(item)));
+            inFlight++;
+        }
+
+        void finish() throws IOException {
+            while (inFlight > 0) emitNext();
+        }
+
+        private void emitNext() throws IOException {
+            try {
+                Completed next = completed.take().get();
+                inFlight--;
+                sink.accept(next.getIndex(), next.getResult());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Пакетну обробку перервано.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    @Value
+    private static class Completed {
+        int index;
+        BatchParseResult result;
+    }
+}
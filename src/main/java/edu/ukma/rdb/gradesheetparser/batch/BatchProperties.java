@@ -0,0 +1,27 @@
+package edu.ukma.rdb.gradesheetparser.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.batch")
+public class BatchProperties {
+    /**
+     * Worker threads shared by all batch requests.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * Files waiting for a worker; when the queue is full the request thread parses the file itself.
+     */
+    private int queueCapacity = 256;
+    /**
+     * Most files accepted in one batch, counting every entry of uploaded ZIP archives.
+     */
+    private int maxFiles = 1000;
+    /**
+     * Largest ZIP entry that is unpacked, in bytes.
+     */
+    private long maxEntryBytes = 20 * 1024 * 1024;
+}
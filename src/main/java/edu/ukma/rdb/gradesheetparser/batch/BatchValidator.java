@@ -0,0 +1,107 @@
+package edu.ukma.rdb.gradesheetparser.batch;
+
+import edu.ukma.rdb.gradesheetparser.IParser;
+import edu.ukma.rdb.gradesheetparser.checks.CheckProperties;
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import edu.ukma.rdb.gradesheetparser.models.BatchCheckResult;
+import edu.ukma.rdb.gradesheetparser.models.Bigunets;
+import edu.ukma.rdb.gradesheetparser.models.ChadSheetCore;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks many edited sheets at once. Sheets of both types may be mixed; every sheet is bound to the model
+ * of its {@code sheetType}, see {@link GradeSheet}. The sheets are split into one slice per worker, so a large batch costs a handful
+ * of tasks rather than one per sheet.
+ */
+@Slf4j
+@Service
+public class BatchValidator implements DisposableBean {
+    private final IParser parser;
+    private final BatchProperties properties;
+    private final CheckProperties checkProperties;
+    private final ThreadPoolExecutor executor;
+
+    public BatchValidator(IParser parser, BatchProperties properties, CheckProperties checkProperties) {
+        this.parser = parser;
+        this.properties = properties;
+        this.checkProperties = checkProperties;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "batch-validator-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Checks all sheets and returns their results in request order.
+     */
+    public List<BatchCheckResult> validate(List<GradeSheet> sheets) {
+        if (sheets.size() > checkProperties.getMaxBatchSheets())
+            throw new ParseStructuralError("Забагато відомостей у пакеті, максимум " + checkProperties.getMaxBatchSheets() + ".");
+
+        BatchCheckResult[] results = new BatchCheckResult[sheets.size()];
+        int slices = Math.max(1, Math.min(properties.getThreads(), sheets.size() / checkProperties.getMinSheetsPerTask()));
+        List<Future<?>> pending = new ArrayList<>(slices - 1);
+        for (int slice = 1; slice < slices; slice++) {
+            int from = slice * sheets.size() / slices;
+            int to = (slice + 1) * sheets.size() / slices;
+            pending.add(executor.submit(() -> validate(sheets, results, from, to)));
+        }
+        validate(sheets, results, 0, sheets.size() / slices);
+
+        try {
+            for (Future<?> slice : pending) slice.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Пакетну перевірку перервано.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return Arrays.asList(results);
+    }
+
+    private void validate(List<GradeSheet> sheets, BatchCheckResult[] results, int from, int to) {
+        for (int i = from; i < to; i++)
+            results[i] = validate(sheets.get(i));
+    }
+
+    private BatchCheckResult validate(GradeSheet sheet) {
+        try {
+            if (sheet instanceof ChadSheetCore) {
+                ChadSheetCore chadSheet = (ChadSheetCore) sheet;
+                chadSheet.resetDefaults();
+                chadSheet.setIsValid(true);
+                return new BatchCheckResult(parser.validate(chadSheet), null);
+            }
+            if (sheet instanceof Bigunets) {
+                Bigunets bigunets = (Bigunets) sheet;
+                bigunets.resetDefaults();
+                bigunets.setIsValid(true);
+                return new BatchCheckResult(parser.validate(bigunets), null);
+            }
+            return new BatchCheckResult(null, "Не вдалося визначити тип заліково-екзаменаційного документу.");
+        } catch (RuntimeException e) {
+            log.warn("Failed to check a sheet of type {}", sheet.getSheetType(), e);
+            return new BatchCheckResult(null, "Не вдалося перевірити відомість.");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
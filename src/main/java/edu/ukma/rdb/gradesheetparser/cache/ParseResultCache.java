@@ -0,0 +1,91 @@
+package edu.ukma.rdb.gradesheetparser.cache;
+
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import edu.ukma.rdb.gradesheetparser.models.GradeSheet;
+import edu.ukma.rdb.gradesheetparser.models.ModelCopier;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Parsed sheets keyed by the SHA-256 of the uploaded file.
+ * Sheets are copied in and out, so every hit returns a fresh copy the caller is free to change.
+ */
+@Component
+public class ParseResultCache {
+    private final ResultCacheProperties properties;
+    private final ParserMetrics metrics;
+    private final LinkedHashMap<ByteBuffer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ParseResultCache(ResultCacheProperties properties, ParserMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        metrics.gaugeCacheSize(entries, LinkedHashMap::size);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && properties.getMaxEntries() > 0;
+    }
+
+    /**
+     * @return a copy of the sheet parsed from a file with this hash, renamed to {@code fileName}, or null
+     */
+    public GradeSheet get(byte[] uploadHash, String fileName) {
+        if (!isEnabled()) return null;
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(ByteBuffer.wrap(uploadHash));
+            if (entry != null && entry.isExpired(properties.getTtlMillis())) {
+                entries.remove(ByteBuffer.wrap(uploadHash));
+                metrics.recordCacheEviction();
+                entry = null;
+            }
+        }
+        metrics.recordCacheLookup(entry != null);
+        if (entry == null) return null;
+        GradeSheet sheet = copy(entry.sheet);
+        sheet.setFileName(fileName);
+        return sheet;
+    }
+
+    public void put(byte[] uploadHash, GradeSheet sheet) {
+        if (!isEnabled()) return;
+        Entry entry = new Entry(copy(sheet), System.currentTimeMillis());
+        synchronized (entries) {
+            entries.put(ByteBuffer.wrap(uploadHash.clone()), entry);
+            evictOverflow();
+        }
+    }
+
+    private static GradeSheet copy(GradeSheet sheet) {
+        return ModelCopier.copy(sheet, BeanUtils.instantiateClass(sheet.getClass()));
+    }
+
+    private void evictOverflow() {
+        long ttl = properties.getTtlMillis();
+        Iterator<Entry> oldestFirst = entries.values().iterator();
+        while (oldestFirst.hasNext()) {
+            Entry entry = oldestFirst.next();
+            if (entries.size() <= properties.getMaxEntries() && !entry.isExpired(ttl)) break;
+            oldestFirst.remove();
+            metrics.recordCacheEviction();
+        }
+    }
+
+    private static class Entry {
+        final GradeSheet sheet;
+        final long createdAt;
+
+        Entry(GradeSheet sheet, long createdAt) {
+            this.sheet = sheet;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - createdAt > ttlMillis;
+        }
+    }
+}
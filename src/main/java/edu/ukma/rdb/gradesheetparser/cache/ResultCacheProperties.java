@@ -0,0 +1,23 @@
+package edu.ukma.rdb.gradesheetparser.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.cache")
+public class ResultCacheProperties {
+    /**
+     * Reuse the parsed sheet when exactly the same file is uploaded again.
+     */
+    private boolean enabled = true;
+    /**
+     * Most sheets kept; the least recently used one is dropped first.
+     */
+    private int maxEntries = 500;
+    /**
+     * How long a parsed sheet is reused after it was parsed.
+     */
+    private long ttlMillis = 60 * 60 * 1000;
+}
@@ -0,0 +1,27 @@
+package edu.ukma.rdb.gradesheetparser.checks;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.checks")
+public class CheckProperties {
+    /**
+     * Most checked sheets kept for editing; the least recently edited ones are dropped first.
+     */
+    private int maxSheets = 1000;
+    /**
+     * How long a checked sheet is kept after its last edit.
+     */
+    private long ttlMillis = 60 * 60 * 1000;
+    /**
+     * Most sheets accepted in one batch check.
+     */
+    private int maxBatchSheets = 1000;
+    /**
+     * Fewest sheets handed to one worker during a batch check; smaller batches use fewer workers.
+     */
+    private int minSheetsPerTask = 16;
+}
@@ -0,0 +1,58 @@
+package edu.ukma.rdb.gradesheetparser.checks;
+
+import edu.ukma.rdb.gradesheetparser.grades.Attendance;
+import edu.ukma.rdb.gradesheetparser.grades.AttendanceCount;
+import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A checked sheet together with the outcome of every part of the check, so that after an edit
+ * only the edited rows have to be checked again.
+ */
+public class SheetCheck {
+    @Getter
+    private final ChadStudentsSheet sheet;
+    @Getter
+    @Setter
+    private boolean headerValid;
+    @Getter
+    private int invalidRows;
+    @Getter
+    private final AttendanceCount attendance = new AttendanceCount();
+    private final boolean[] rowValid;
+    private final Attendance[] rowAttendance;
+    private final Map<Integer, Integer> rowByOrdinal = new HashMap<>();
+
+    public SheetCheck(ChadStudentsSheet sheet) {
+        this.sheet = sheet;
+        int rows = sheet.getStudentsData().size();
+        this.rowValid = new boolean[rows];
+        this.rowAttendance = new Attendance[rows];
+        for (int i = 0; i < rows; i++) {
+            rowValid[i] = true;
+            rowByOrdinal.putIfAbsent(sheet.getStudentsData().get(i).getOrdinal(), i);
+        }
+    }
+
+    /**
+     * @return position of the first row with the ordinal, or null if the sheet has no such row
+     */
+    public Integer indexOf(int ordinal) {
+        return rowByOrdinal.get(ordinal);
+    }
+
+    /**
+     * Records the outcome of checking the row at {@code index}, replacing the previous one.
+     */
+    public void setRow(int index, boolean valid, Attendance attendance) {
+        if (rowValid[index] != valid) invalidRows += valid ? -1 : 1;
+        rowValid[index] = valid;
+        this.attendance.remove(rowAttendance[index]);
+        this.attendance.add(attendance);
+        rowAttendance[index] = attendance;
+    }
+}
@@ -0,0 +1,99 @@
+package edu.ukma.rdb.gradesheetparser.checks;
+
+import edu.ukma.rdb.gradesheetparser.IParser;
+import edu.ukma.rdb.gradesheetparser.exceptions.CheckNotFoundException;
+import edu.ukma.rdb.gradesheetparser.exceptions.CheckVersionConflictException;
+import edu.ukma.rdb.gradesheetparser.models.ChadSheetCore;
+import edu.ukma.rdb.gradesheetparser.models.ChadStudentsSheet;
+import edu.ukma.rdb.gradesheetparser.models.CheckedSheet;
+import edu.ukma.rdb.gradesheetparser.models.ModelCopier;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Keeps checked sheets between edits. A sheet is checked in full once; every later edit sends only
+ * what was changed and re-checks the header, the edited rows and the attendance counts.
+ * Sheets are kept for {@code parser.checks.ttl-millis} after their last edit.
+ * Edits of one sheet are applied one at a time; an edit made on an outdated version is rejected.
+ */
+@Service
+public class SheetCheckService {
+    private final IParser parser;
+    private final CheckProperties properties;
+    // least recently edited first; an entry moves to the end only once an edit of it succeeds
+    private final LinkedHashMap<String, Entry> checks = new LinkedHashMap<>();
+
+    public SheetCheckService(IParser parser, CheckProperties properties) {
+        this.parser = parser;
+        this.properties = properties;
+    }
+
+    public CheckedSheet start(ChadSheetCore sheet) {
+        sheet.resetDefaults();
+        sheet.setIsValid(true);
+        Entry entry = new Entry(UUID.randomUUID().toString(), parser.check(sheet));
+        // taken before the entry is published and can be edited
+        CheckedSheet checked = entry.toCheckedSheet();
+        synchronized (checks) {
+            evict();
+            entry.touchedAt = System.currentTimeMillis();
+            checks.put(entry.id, entry);
+            if (checks.size() > properties.getMaxSheets())
+                checks.remove(checks.keySet().iterator().next());
+        }
+        return checked;
+    }
+
+    public CheckedSheet update(String id, long version, ChadSheetCore changes) {
+        Entry entry;
+        synchronized (checks) {
+            evict();
+            entry = checks.get(id);
+        }
+        if (entry == null) throw new CheckNotFoundException("Відомість не знайдено, перевірте її повністю.");
+        CheckedSheet checked;
+        synchronized (entry) {
+            if (entry.version != version)
+                throw new CheckVersionConflictException("Відомість уже змінено, оновіть її та повторіть зміни.");
+            parser.recheck(entry.check, changes);
+            entry.version++;
+            checked = entry.toCheckedSheet();
+        }
+        synchronized (checks) {
+            entry.touchedAt = System.currentTimeMillis();
+            // unless it was dropped meanwhile
+            if (checks.remove(entry.id) == entry) checks.put(entry.id, entry);
+        }
+        return checked;
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> leastRecentFirst = checks.values().iterator();
+        while (leastRecentFirst.hasNext()) {
+            if (now - leastRecentFirst.next().touchedAt <= properties.getTtlMillis()) break;
+            leastRecentFirst.remove();
+        }
+    }
+
+    private static class Entry {
+        private final String id;
+        private final SheetCheck check;
+        private long version = 1;
+        // guarded by the map, like the order of the entries
+        private long touchedAt;
+
+        Entry(String id, SheetCheck check) {
+            this.id = id;
+            this.check = check;
+        }
+
+        // a copy, so the response is not serialized while a later edit changes the kept sheet
+        CheckedSheet toCheckedSheet() {
+            return new CheckedSheet(id, version, ModelCopier.copy(check.getSheet(), new ChadStudentsSheet()));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package edu.ukma.rdb.gradesheetparser.context;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.PDFTextStripperByArea;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scratch state of one parse that is kept between parses instead of made anew: a text stripper and
+ * an area stripper, the buffer the first writes to, a buffer for building text and a matcher for every pattern used.
+ * A context is used by one thread at a time; it is borrowed from a {@link ParseContextPool} and returned by
+ * {@link #close()}. Nothing it hands out may be used after that.
+ */
+public final class ParseContext implements AutoCloseable {
+    private final ParseContextPool pool;
+    private final Stripper stripper;
+    private final AreaStripper areaStripper;
+    private final StringBuilder text = new StringBuilder();
+    private final Writer textWriter = new Writer() {
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            text.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String s, int offset, int length) {
+            text.append(s, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private final StringBuilder buffer = new StringBuilder();
+    private final Map<Pattern, Matcher> matchers = new IdentityHashMap<>();
+
+    ParseContext(ParseContextPool pool) throws IOException {
+        this.pool = pool;
+        this.stripper = new Stripper();
+        this.areaStripper = new AreaStripper();
+    }
+
+    /**
+     * The same as {@link PDFTextStripper#getText} over the given pages.
+     *
+     * @param suppressDuplicateText see {@link PDFTextStripper#setSuppressDuplicateOverlappingText}
+     */
+    public String strip(PDDocument document, int startPage, int endPage, boolean suppressDuplicateText)
+            throws IOException {
+        stripper.setSuppressDuplicateOverlappingText(suppressDuplicateText);
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        text.setLength(0);
+        stripper.writeText(document, textWriter);
+        return text.toString();
+    }
+
+    /**
+     * Strips two areas of a page in one pass over it, as {@link PDFTextStripperByArea} does with sorting by
+     * position: lines are joined with spaces. Text outside both areas is skipped.
+     *
+     * @param header     area whose text is appended to {@code headerText}; may be empty
+     * @param body       area whose text is appended to {@code bodyText}
+     * @param suppressDuplicateText see {@link PDFTextStripper#setSuppressDuplicateOverlappingText}
+     */
+    public void stripAreas(PDPage page, Rectangle2D header, StringBuilder headerText, Rectangle2D body,
+                           StringBuilder bodyText, boolean suppressDuplicateText) throws IOException {
+        areaStripper.setSuppressDuplicateOverlappingText(suppressDuplicateText);
+        areaStripper.setAreas(header, body);
+        areaStripper.extractRegions(page);
+        headerText.append(areaStripper.getTextForRegion(AreaStripper.HEADER));
+        bodyText.append(areaStripper.getTextForRegion(AreaStripper.BODY));
+    }
+
+    /**
+     * @return the context's buffer, emptied
+     */
+    public StringBuilder buffer() {
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * @return the context's matcher of {@code pattern}, reset to {@code input} with default bounds
+     */
+    public Matcher matcher(Pattern pattern, CharSequence input) {
+        Matcher matcher = matchers.get(pattern);
+        if (matcher == null) {
+            matcher = pattern.matcher(input);
+            matchers.put(pattern, matcher);
+            return matcher;
+        }
+        return matcher.reset(input).useTransparentBounds(false).useAnchoringBounds(true);
+    }
+
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+
+    /**
+     * Forgets the last document and text so an idle context holds on to none of it.
+     *
+     * @return whether the buffers are small enough to keep the context
+     */
+    boolean reset(int maxBufferChars) {
+        stripper.forgetDocument();
+        areaStripper.forgetPage();
+        for (Matcher matcher : matchers.values()) matcher.reset("");
+        text.setLength(0);
+        buffer.setLength(0);
+        return text.capacity() <= maxBufferChars && buffer.capacity() <= maxBufferChars;
+    }
+
+    private static class AreaStripper extends PDFTextStripperByArea {
+        static final String HEADER = "header";
+        static final String BODY = "body";
+        // a page without contents, extracting it drops the text of the last page
+        private static final PDPage BLANK = new PDPage();
+
+        AreaStripper() throws IOException {
+            setSortByPosition(true);
+            setLineSeparator(" ");
+            setAreas(new Rectangle2D.Float(), new Rectangle2D.Float());
+        }
+
+        // the regions are a list, adding one again would strip it twice
+        void setAreas(Rectangle2D header, Rectangle2D body) {
+            removeRegion(HEADER);
+            removeRegion(BODY);
+            addRegion(HEADER, header);
+            addRegion(BODY, body);
+        }
+
+        void forgetPage() {
+            try {
+                extractRegions(BLANK);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class Stripper extends PDFTextStripper {
+        Stripper() throws IOException {
+        }
+
+        void forgetDocument() {
+            document = null;
+            for (List<TextPosition> article : charactersByArticle) article.clear();
+        }
+    }
+}
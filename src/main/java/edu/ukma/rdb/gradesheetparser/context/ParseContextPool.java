@@ -0,0 +1,39 @@
+package edu.ukma.rdb.gradesheetparser.context;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of {@link ParseContext}s. Borrowing never waits: when no context is idle a new one is made.
+ */
+@Component
+public class ParseContextPool {
+    private final ParseContextProperties properties;
+    private final BlockingQueue<ParseContext> idle;
+
+    public ParseContextPool(ParseContextProperties properties) {
+        this.properties = properties;
+        this.idle = properties.getMaxIdle() > 0 ? new ArrayBlockingQueue<>(properties.getMaxIdle()) : null;
+    }
+
+    /**
+     * @return a context that goes back to the pool when closed
+     */
+    public ParseContext borrow() {
+        ParseContext context = idle == null ? null : idle.poll();
+        if (context != null) return context;
+        try {
+            return new ParseContext(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void release(ParseContext context) {
+        if (context.reset(properties.getMaxBufferChars()) && idle != null) idle.offer(context);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.ukma.rdb.gradesheetparser.context;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.context")
+public class ParseContextProperties {
+    /**
+     * Most idle contexts kept for reuse; more are made while all of them are in use and dropped when returned.
+     */
+    private int maxIdle = Runtime.getRuntime().availableProcessors();
+    /**
+     * A context whose buffers grew past this many characters on a large document is dropped when returned
+     * rather than kept holding the memory.
+     */
+    private int maxBufferChars = 1 << 20;
+}
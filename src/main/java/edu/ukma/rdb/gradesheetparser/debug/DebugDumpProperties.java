@@ -0,0 +1,24 @@
+package edu.ukma.rdb.gradesheetparser.debug;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.debug-dump")
+public class DebugDumpProperties {
+    /**
+     * Write the extracted text of every parsed upload to {@link #directory}.
+     */
+    private boolean enabled = false;
+    private String directory = "debug-dumps";
+    /**
+     * Oldest dumps are deleted once the directory holds more files than this.
+     */
+    private int maxFiles = 200;
+    /**
+     * Dumps waiting to be written; further dumps are dropped while the queue is full.
+     */
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,90 @@
+package edu.ukma.rdb.gradesheetparser.debug;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes extracted sheet text to {@code <sha-256 of the upload>.txt} files off the request thread.
+ * Does nothing unless {@code parser.debug-dump.enabled} is set.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TextDumper implements DisposableBean {
+    private final DebugDumpProperties properties;
+    private ThreadPoolExecutor executor;
+    private Path directory;
+
+    @PostConstruct
+    void init() {
+        if (!properties.isEnabled()) return;
+        directory = Paths.get(properties.getDirectory());
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "text-dumper");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    public void dump(byte[] uploadHash, String text) {
+        if (!isEnabled()) return;
+        String name = toHex(uploadHash) + ".txt";
+        try {
+            executor.execute(() -> write(name, text));
+        } catch (RejectedExecutionException e) {
+            log.debug("Dump queue is full, skipping {}", name);
+        }
+    }
+
+    private void write(String name, String text) {
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(name), text.getBytes(StandardCharsets.UTF_8));
+            rotate();
+        } catch (IOException e) {
+            log.warn("Could not write text dump {}", name, e);
+        }
+    }
+
+    private void rotate() {
+        File[] dumps = directory.toFile().listFiles((dir, fileName) -> fileName.endsWith(".txt"));
+        if (dumps == null || dumps.length <= properties.getMaxFiles()) return;
+        Arrays.sort(dumps, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < dumps.length - properties.getMaxFiles(); i++) {
+            if (!dumps[i].delete()) log.warn("Could not delete old text dump {}", dumps[i]);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdown();
+    }
+}
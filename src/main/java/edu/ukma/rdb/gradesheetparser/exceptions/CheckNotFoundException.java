@@ -0,0 +1,7 @@
+package edu.ukma.rdb.gradesheetparser.exceptions;
+
+public class CheckNotFoundException extends RuntimeException {
+    public CheckNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.ukma.rdb.gradesheetparser.exceptions;
+
+public class CheckVersionConflictException extends RuntimeException {
+    public CheckVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.ukma.rdb.gradesheetparser.exceptions;
+
+public class DocumentTooLargeException extends RuntimeException {
+    public DocumentTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.ukma.rdb.gradesheetparser.exceptions;
+
+public class JobNotFinishedException extends RuntimeException {
+    public JobNotFinishedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.ukma.rdb.gradesheetparser.exceptions;
+
+public class JobNotFoundException extends RuntimeException {
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+}
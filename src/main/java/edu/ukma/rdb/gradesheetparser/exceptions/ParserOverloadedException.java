@@ -0,0 +1,13 @@
+package edu.ukma.rdb.gradesheetparser.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ParserOverloadedException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ParserOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,63 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+import edu.ukma.rdb.gradesheetparser.context.ParseContext;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * Finds all {@link HeaderField}s in a single walk over the sheet text.
+ * For every field the first match is returned, exactly as {@link Matcher#find()} would report it;
+ * fields that are not present in the text are absent from the result.
+ */
+public final class HeaderExtractor {
+    private static final HeaderField[] FIELDS = HeaderField.values();
+
+    private HeaderExtractor() {
+    }
+
+    public static Map<HeaderField, MatchResult> extract(CharSequence text) {
+        return extract(text, null);
+    }
+
+    /**
+     * @param context where the matchers are taken from, or null to make new ones
+     */
+    public static Map<HeaderField, MatchResult> extract(CharSequence text, ParseContext context) {
+        return extract(text, context, FIELDS);
+    }
+
+    /**
+     * Finds only the given fields, e.g. {@link HeaderField#FOOTER} in the text below the student table.
+     */
+    public static Map<HeaderField, MatchResult> extract(CharSequence text, ParseContext context,
+                                                        Set<HeaderField> fields) {
+        return extract(text, context, fields.toArray(new HeaderField[0]));
+    }
+
+    private static Map<HeaderField, MatchResult> extract(CharSequence text, ParseContext context,
+                                                         HeaderField[] wanted) {
+        Map<HeaderField, MatchResult> found = new EnumMap<>(HeaderField.class);
+        Matcher[] matchers = new Matcher[FIELDS.length];
+        int length = text.length();
+        for (int i = 0; i < length && found.size() < wanted.length; i++) {
+            char c = text.charAt(i);
+            for (HeaderField field : wanted) {
+                if (!field.isAnchoredAt(c) || found.containsKey(field)) continue;
+                Matcher m = matchers[field.ordinal()];
+                if (m == null) {
+                    m = (context == null ? field.getPattern().matcher(text) : context.matcher(field.getPattern(), text))
+                            .useTransparentBounds(true)
+                            .useAnchoringBounds(false);
+                    matchers[field.ordinal()] = m;
+                }
+                m.region(i, length);
+                if (m.lookingAt()) found.put(field, m.toMatchResult());
+            }
+        }
+        return found;
+    }
+}
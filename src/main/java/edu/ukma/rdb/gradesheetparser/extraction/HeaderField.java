@@ -0,0 +1,57 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Header fields of a grade sheet together with the rule used to find them.
+ * Every rule starts with a fixed character (the anchor) so the extractor only
+ * tries a pattern at positions where it can possibly match.
+ */
+@Getter
+public enum HeaderField {
+    CHAD_SHEET_TYPE('з', "(?iu)заліково[- ]?екзаменаційна\\s*відомість"),
+    BIGUNETS_SHEET_TYPE('з', "(?iu)заліково[- ]?екзаменаційний\\s*листок"),
+    SHEET_CODE('№', "(?iu)№\\s*(\\d+?)\\s*освітній"), // use \b?
+    OKR('о', "(?iu)\\bосвітній рівень\\s*(\\p{IsCyrillic}+?)\\b"),
+    FACULTY('ф', "(?iu)факультет\\s+((\\p{IsCyrillic}|\\s)+)\\s+рік"),
+    EDU_YEAR('р', "(?iu)Рік навчання\\s*(\\d)"),
+    GROUP('г', "(?iu)група\\s*((\\p{IsCyrillic}|\\d)+)\\b"),
+    SUBJECT('д', "(?iu)дисципліна\\s*(.+?)\\s*семестр"),
+    TERM('с', "(?iu)семестр\\s*(\\dд?)"),
+    CREDIT_POINTS('з', "(?iu)залікові бали\\s*(\\d{1,2})"),
+    CONTROL_FORM('ф', "(?iu)форма контролю(:)?\\s*(\\p{IsCyrillic}+)\\b"),
+    DATE('д', "(?iu)дата\\s*\\W\\s*(\\d{2})\\s*\\W\\s*(\\p{IsCyrillic}+)\\s*(\\d{4})\\s*р\\."),
+    TEACHER_NAME('р', "(?iu)р\\.?\\s*((\\b\\p{IsCyrillic}+\\s*){3}),"),
+    TEACHER_RANK(',', "(?iu),(.+?)прізвище"),
+    DEAN('д', "(?iu)декан факультету((\\s+\\p{IsCyrillic}+){3})"),
+    CAUSE('п', "(?iu)причина перенесення((\\p{IsCyrillic}|\\s)+)\\b\\s*форма"),
+    EXPIRATION('д', "(?iu)дійсне до\\s*\\W\\s*(\\d{2})\\s*\\W\\s*(\\p{IsCyrillic}+)\\s*(\\d{4})\\s*р\\."),
+    PRESENT('к', "(?iu)Кількість студентів на екзамені\\s*/тезі\\s*/заліку\\s*(\\d+)"),
+    MISSING('к', "(?iu)кількість студентів, які не з’явились на екзамен\\s*/тезу\\s*/залік\\s*(\\d+)"),
+    BANNED('к', "(?iu)кількість студентів, недопущених до екзамену\\s*/тези\\s*/заліку\\s*(\\d+)");
+
+    /**
+     * Fields printed below the student table.
+     */
+    public static final Set<HeaderField> FOOTER = EnumSet.of(DEAN, PRESENT, MISSING, BANNED);
+    /**
+     * Fields printed above the student table.
+     */
+    public static final Set<HeaderField> HEADER = EnumSet.complementOf(EnumSet.copyOf(FOOTER));
+
+    private final char anchor;
+    private final Pattern pattern;
+
+    HeaderField(char anchor, String regex) {
+        this.anchor = anchor;
+        this.pattern = Pattern.compile(regex);
+    }
+
+    boolean isAnchoredAt(char c) {
+        return c == anchor || Character.toLowerCase(c) == anchor;
+    }
+}
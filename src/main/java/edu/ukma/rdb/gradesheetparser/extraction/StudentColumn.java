@@ -0,0 +1,22 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Columns of the student table in the order they go on the sheet, with a word found only in the column's heading.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum StudentColumn {
+    ORDINAL("з/п"),
+    NAME("прізвище"),
+    BOOK_NO("залікової"),
+    TERM_GRADE("семестр"),
+    EXAM_GRADE("екзамен"),
+    SUM("сума"),
+    NATIONAL_GRADE("національна"),
+    ECTS_GRADE("ects");
+
+    private final String heading;
+}
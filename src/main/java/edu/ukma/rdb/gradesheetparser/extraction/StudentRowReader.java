@@ -0,0 +1,314 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads student rows from the flattened table text one at a time, finding the same rows and cells as the table
+ * regex it replaces, see {@link #TABLE_ROW}.
+ * A row is: ordinal, name words, book number, up to three numbers (term grade, exam grade, sum),
+ * national grade words and an ECTS letter; every part after the ordinal may be missing.
+ * Cells may be glued together (e.g. "22Не"): digits and Cyrillic runs are told apart by character class
+ * rather than by whitespace. A name word is two or more Cyrillic letters.
+ * A row is read in a single pass, taking every cell greedily as the regex does first. The few rows where
+ * the regex would go back on a cell, such as a book number glued to the name, are matched with the regex itself.
+ */
+public final class StudentRowReader implements StudentRows {
+    private static final Pattern TABLE_ROW = Pattern.compile("(?u)(\\d+)\\s+((\\p{IsCyrillic}{2,}\\s*){2,})?\\s*(І\\d?\\s*\\d{3}/\\d{2}\\s*((бп)|(мп)))?\\s*(\\d+)?\\s*(\\d+)?\\s*(\\d+)?\\s*([\\p{IsCyrillic} ]+)?\\s+(\\p{Alpha})?\\s*");
+    private static final int NAME_GROUP = 2;
+    private static final int BOOK_NO_GROUP = 4;
+    private static final int TERM_GRADE_GROUP = 8;
+    private static final int NATIONAL_GRADE_GROUP = 11;
+    private static final int ECTS_GRADE_GROUP = 12;
+
+    private final CharSequence text;
+    private final int length;
+    private int pos;
+
+    private int ordinal;
+    private int[] nameBounds = new int[8];
+    private int nameWords;
+    private int bookStart;
+    private int bookEnd;
+    private final int[] gradeBounds = new int[6];
+    private final int[] grades = new int[3];
+    private int gradeCount;
+    private int nationalStart;
+    private int nationalEnd;
+    private char ects;
+    private final StringBuilder scratch = new StringBuilder(16);
+    private Matcher matcher;
+
+    public StudentRowReader(CharSequence text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+    /**
+     * @return whether the whole of {@code s} is a book number as a row is read with it
+     */
+    static boolean isBookNo(CharSequence s) {
+        if (s.length() == 0 || s.charAt(0) != 'І') return false;
+        StudentRowReader reader = new StudentRowReader(s);
+        return reader.matchBookNo(1, true) == s.length() || reader.matchBookNo(1, false) == s.length();
+    }
+
+    @Override
+    public boolean next() {
+        while (true) {
+            int start = pos;
+            while (start < length && !isDigit(text.charAt(start))) start++;
+            if (start == length) {
+                pos = length;
+                return false;
+            }
+            int end = digitsEnd(start);
+            // a row starts with a number and whitespace
+            if (end < length && isSpace(text.charAt(end)) && (readRow(end) || matchRow(start))) {
+                ordinal = parseInt(start, end);
+                for (int i = 0; i < gradeCount; i++) grades[i] = parseInt(gradeBounds[2 * i], gradeBounds[2 * i + 1]);
+                return true;
+            }
+            pos = end;
+        }
+    }
+
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public int getNameWordCount() {
+        return nameWords;
+    }
+
+    @Override
+    public String getNameWord(int i) {
+        return text.subSequence(nameBounds[2 * i], nameBounds[2 * i + 1]).toString();
+    }
+
+    @Override
+    public boolean nameContains(char c) {
+        for (int i = 0; i < nameWords; i++)
+            for (int j = nameBounds[2 * i]; j < nameBounds[2 * i + 1]; j++)
+                if (text.charAt(j) == c) return true;
+        return false;
+    }
+
+    @Override
+    public String getBookNo() {
+        return bookStart < 0 ? null : text.subSequence(bookStart, bookEnd).toString();
+    }
+
+    @Override
+    public Integer getTermGrade() {
+        return gradeCount > 0 ? grades[0] : null;
+    }
+
+    @Override
+    public Integer getExamGrade() {
+        return gradeCount > 1 ? grades[1] : null;
+    }
+
+    @Override
+    public Integer getSum() {
+        return gradeCount > 2 ? grades[2] : null;
+    }
+
+    @Override
+    public CharSequence getNormalizedNationalGrade() {
+        if (nationalStart < 0) return null;
+        scratch.setLength(0);
+        for (int i = nationalStart; i < nationalEnd; i++) {
+            char c = text.charAt(i);
+            if (!isSpace(c)) scratch.append(Character.toLowerCase(c));
+        }
+        return scratch;
+    }
+
+    @Override
+    public Character getEctsGrade() {
+        return ects == 0 ? null : ects;
+    }
+
+    /**
+     * Reads the row after its ordinal the way the regex tries it first. Past the national grade the regex needs
+     * whitespace; when there is none it goes back on the national grade and then on the whitespace before it,
+     * which is done here too.
+     *
+     * @return false when the regex would go back further, on a cell read before
+     */
+    private boolean readRow(int ordinalEnd) {
+        nameWords = 0;
+        bookStart = bookEnd = -1;
+        gradeCount = 0;
+        nationalStart = nationalEnd = -1;
+        ects = 0;
+
+        int i = readNames(skipSpaces(ordinalEnd));
+        i = readGrades(skipSpaces(readBookNo(i)));
+        // the national grade, ending where whitespace follows
+        int runEnd = i;
+        int blankEnd = -1;
+        for (; runEnd < length && (text.charAt(runEnd) == ' ' || isCyrillic(text.charAt(runEnd))); runEnd++)
+            if (runEnd > i && text.charAt(runEnd) == ' ') blankEnd = runEnd;
+        if (runEnd > i && runEnd < length && isSpace(text.charAt(runEnd))) blankEnd = runEnd;
+        if (blankEnd >= 0) {
+            nationalStart = i;
+            nationalEnd = blankEnd;
+            pos = readEctsGrade(blankEnd);
+            return true;
+        }
+        // no national grade: the whitespace before is given back, unless it is all that follows the ordinal
+        if (i - 1 > ordinalEnd && isSpace(text.charAt(i - 1))) {
+            pos = readEctsGrade(i - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean matchRow(int start) {
+        if (matcher == null) matcher = TABLE_ROW.matcher(text);
+        matcher.region(start, length);
+        if (!matcher.lookingAt()) return false;
+        nameWords = 0;
+        int nameEnd = matcher.end(NAME_GROUP);
+        for (int i = matcher.start(NAME_GROUP); i >= 0 && i < nameEnd; ) {
+            int end = i;
+            while (end < nameEnd && !isSpace(text.charAt(end))) end++;
+            addNameWord(i, end);
+            i = skipSpaces(end);
+        }
+        bookStart = matcher.start(BOOK_NO_GROUP);
+        bookEnd = matcher.end(BOOK_NO_GROUP);
+        // a grade is only matched when the ones before it are
+        gradeCount = 0;
+        for (int group = TERM_GRADE_GROUP; group < TERM_GRADE_GROUP + grades.length; group++) {
+            if (matcher.start(group) < 0) break;
+            addGrade(matcher.start(group), matcher.end(group));
+        }
+        nationalStart = matcher.start(NATIONAL_GRADE_GROUP);
+        nationalEnd = matcher.end(NATIONAL_GRADE_GROUP);
+        int ectsAt = matcher.start(ECTS_GRADE_GROUP);
+        ects = ectsAt < 0 ? 0 : text.charAt(ectsAt);
+        pos = matcher.end();
+        return true;
+    }
+
+    // two or more words; a single word of four or more letters the regex splits in two, and keeps whole
+    private int readNames(int start) {
+        int i = start;
+        while (true) {
+            int end = cyrillicEnd(i);
+            if (end - i < 2) break;
+            addNameWord(i, end);
+            i = skipSpaces(end);
+        }
+        if (nameWords == 1 && nameBounds[1] - nameBounds[0] < 4) nameWords = 0;
+        return nameWords == 0 ? start : i;
+    }
+
+    private void addNameWord(int start, int end) {
+        if (2 * nameWords == nameBounds.length)
+            nameBounds = Arrays.copyOf(nameBounds, 2 * nameBounds.length);
+        nameBounds[2 * nameWords] = start;
+        nameBounds[2 * nameWords + 1] = end;
+        nameWords++;
+    }
+
+    private int readBookNo(int start) {
+        if (start == length || text.charAt(start) != 'І') return start;
+        int end = matchBookNo(start + 1, true);
+        if (end < 0) end = matchBookNo(start + 1, false);
+        if (end < 0) return start;
+        bookStart = start;
+        bookEnd = end;
+        return end;
+    }
+
+    // І\d?\s*\d{3}/\d{2}\s*(бп|мп), starting right after the letter
+    private int matchBookNo(int i, boolean withSeries) {
+        if (withSeries) {
+            if (i == length || !isDigit(text.charAt(i))) return -1;
+            i++;
+        }
+        i = skipSpaces(i);
+        for (int k = 0; k < 3; k++, i++)
+            if (i == length || !isDigit(text.charAt(i))) return -1;
+        if (i == length || text.charAt(i) != '/') return -1;
+        i++;
+        for (int k = 0; k < 2; k++, i++)
+            if (i == length || !isDigit(text.charAt(i))) return -1;
+        i = skipSpaces(i);
+        if (i + 2 > length || text.charAt(i + 1) != 'п') return -1;
+        char degree = text.charAt(i);
+        return degree == 'б' || degree == 'м' ? i + 2 : -1;
+    }
+
+    private int readGrades(int i) {
+        while (gradeCount < grades.length) {
+            int end = digitsEnd(i);
+            if (end == i) break;
+            addGrade(i, end);
+            i = skipSpaces(end);
+        }
+        return i;
+    }
+
+    private void addGrade(int start, int end) {
+        gradeBounds[2 * gradeCount] = start;
+        gradeBounds[2 * gradeCount + 1] = end;
+        gradeCount++;
+    }
+
+    // the letter after the whitespace that must follow the national grade; the row ends after it
+    private int readEctsGrade(int blankStart) {
+        int i = skipSpaces(blankStart);
+        if (i == length) return i;
+        char c = text.charAt(i);
+        if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+            ects = c;
+            return skipSpaces(i + 1);
+        }
+        return i;
+    }
+
+    private int skipSpaces(int i) {
+        while (i < length && isSpace(text.charAt(i))) i++;
+        return i;
+    }
+
+    private int digitsEnd(int i) {
+        while (i < length && isDigit(text.charAt(i))) i++;
+        return i;
+    }
+
+    private int cyrillicEnd(int i) {
+        while (i < length && isCyrillic(text.charAt(i))) i++;
+        return i;
+    }
+
+    private int parseInt(int start, int end) {
+        if (end - start > 9) return Integer.parseInt(text.subSequence(start, end).toString());
+        int value = 0;
+        for (int i = start; i < end; i++)
+            value = value * 10 + (text.charAt(i) - '0');
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // \p{IsCyrillic}: the script, which is the Cyrillic block but for two combining marks, and a few more letters
+    private static boolean isCyrillic(char c) {
+        if (c >= '\u0400' && c <= '\u04FF') return c != '\u0485' && c != '\u0486';
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.CYRILLIC;
+    }
+}
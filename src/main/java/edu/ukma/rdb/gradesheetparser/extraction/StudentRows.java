@@ -0,0 +1,38 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+/**
+ * Student rows of the table, read one at a time. Every getter refers to the current row and returns null
+ * when the row has no such cell.
+ */
+public interface StudentRows {
+    /**
+     * Advances to the next row.
+     *
+     * @return false when there are no more rows
+     */
+    boolean next();
+
+    int getOrdinal();
+
+    int getNameWordCount();
+
+    String getNameWord(int i);
+
+    boolean nameContains(char c);
+
+    String getBookNo();
+
+    Integer getTermGrade();
+
+    Integer getExamGrade();
+
+    Integer getSum();
+
+    /**
+     * @return national grade in lower case with all whitespace removed, built in a buffer of the reader
+     * that is only valid until {@link #next()}
+     */
+    CharSequence getNormalizedNationalGrade();
+
+    Character getEctsGrade();
+}
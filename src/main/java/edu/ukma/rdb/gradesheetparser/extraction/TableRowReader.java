@@ -0,0 +1,117 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+import java.util.List;
+
+/**
+ * Reads student rows whose cells are already told apart, see {@link StudentColumn}.
+ * A cell is taken as a whole or not at all: a grade that is not a number or a book number of the wrong form
+ * counts as missing, as it would in the text.
+ */
+public final class TableRowReader implements StudentRows {
+    private static final String[] NO_WORDS = new String[0];
+
+    private final List<String[]> rows;
+    private final StringBuilder scratch = new StringBuilder(16);
+    private int index = -1;
+    private String[] row;
+    private int ordinal;
+    private String[] nameWords;
+
+    /**
+     * @param rows cells of every row indexed by {@link StudentColumn#ordinal()}, empty when the cell is;
+     *             a row whose ordinal cell is not a number is skipped
+     */
+    public TableRowReader(List<String[]> rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public boolean next() {
+        Integer rowOrdinal;
+        do {
+            if (index + 1 >= rows.size()) return false;
+            row = rows.get(++index);
+            rowOrdinal = number(cell(StudentColumn.ORDINAL));
+        } while (rowOrdinal == null);
+        ordinal = rowOrdinal;
+        String name = cell(StudentColumn.NAME);
+        nameWords = name.isEmpty() ? NO_WORDS : name.split(" ");
+        return true;
+    }
+
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public int getNameWordCount() {
+        return nameWords.length;
+    }
+
+    @Override
+    public String getNameWord(int i) {
+        return nameWords[i];
+    }
+
+    @Override
+    public boolean nameContains(char c) {
+        return cell(StudentColumn.NAME).indexOf(c) >= 0;
+    }
+
+    @Override
+    public String getBookNo() {
+        String bookNo = cell(StudentColumn.BOOK_NO);
+        return StudentRowReader.isBookNo(bookNo) ? bookNo : null;
+    }
+
+    @Override
+    public Integer getTermGrade() {
+        return number(cell(StudentColumn.TERM_GRADE));
+    }
+
+    @Override
+    public Integer getExamGrade() {
+        return number(cell(StudentColumn.EXAM_GRADE));
+    }
+
+    @Override
+    public Integer getSum() {
+        return number(cell(StudentColumn.SUM));
+    }
+
+    @Override
+    public CharSequence getNormalizedNationalGrade() {
+        String grade = cell(StudentColumn.NATIONAL_GRADE);
+        if (grade.isEmpty()) return null;
+        scratch.setLength(0);
+        for (int i = 0; i < grade.length(); i++) {
+            char c = grade.charAt(i);
+            if (!StudentRowReader.isSpace(c)) scratch.append(Character.toLowerCase(c));
+        }
+        return scratch;
+    }
+
+    @Override
+    public Character getEctsGrade() {
+        String grade = cell(StudentColumn.ECTS_GRADE);
+        if (grade.length() != 1) return null;
+        char c = grade.charAt(0);
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') ? c : null;
+    }
+
+    private String cell(StudentColumn column) {
+        return row[column.ordinal()];
+    }
+
+    private static Integer number(String cell) {
+        if (cell.isEmpty() || cell.length() > 9) return null;
+        int value = 0;
+        for (int i = 0; i < cell.length(); i++) {
+            char c = cell.charAt(i);
+            if (c < '0' || c > '9') return null;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,10 @@
+package edu.ukma.rdb.gradesheetparser.grades;
+
+/**
+ * How a student is counted in the footer of a sheet.
+ */
+public enum Attendance {
+    PRESENT,
+    MISSING,
+    BANNED
+}
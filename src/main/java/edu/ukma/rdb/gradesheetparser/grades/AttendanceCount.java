@@ -0,0 +1,36 @@
+package edu.ukma.rdb.gradesheetparser.grades;
+
+import lombok.Getter;
+
+/**
+ * Numbers of present, missing and banned students, gathered while walking the student rows once.
+ */
+@Getter
+public class AttendanceCount {
+    private int present;
+    private int missing;
+    private int banned;
+
+    public void add(Attendance attendance) {
+        change(attendance, 1);
+    }
+
+    public void remove(Attendance attendance) {
+        change(attendance, -1);
+    }
+
+    private void change(Attendance attendance, int by) {
+        if (attendance == null) return;
+        switch (attendance) {
+            case PRESENT:
+                present += by;
+                break;
+            case MISSING:
+                missing += by;
+                break;
+            case BANNED:
+                banned += by;
+                break;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package edu.ukma.rdb.gradesheetparser.grades;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ControlForm {
+    CREDIT("залік"),
+    EXAM("екзамен");
+
+    private final String name;
+
+    /**
+     * @return the control form named {@code name} in any case, or null for unknown or missing names
+     */
+    public static ControlForm of(String name) {
+        if (name == null) return null;
+        for (ControlForm form : values())
+            if (form.name.equalsIgnoreCase(name)) return form;
+        return null;
+    }
+}
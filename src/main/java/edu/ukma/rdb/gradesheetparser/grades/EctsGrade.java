@@ -0,0 +1,32 @@
+package edu.ukma.rdb.gradesheetparser.grades;
+
+public enum EctsGrade {
+    A(91, Integer.MAX_VALUE),
+    B(81, 90),
+    C(71, 80),
+    D(66, 70),
+    E(60, 65),
+    F(Integer.MIN_VALUE, 59);
+
+    private static final EctsGrade[] BY_LETTER = values();
+
+    private final int minSum;
+    private final int maxSum;
+
+    EctsGrade(int minSum, int maxSum) {
+        this.minSum = minSum;
+        this.maxSum = maxSum;
+    }
+
+    public boolean accepts(int sum) {
+        return sum >= minSum && sum <= maxSum;
+    }
+
+    /**
+     * @return the grade for an upper-case letter A to F, or null for any other letter
+     */
+    public static EctsGrade of(Character letter) {
+        if (letter == null || letter < 'A' || letter >= 'A' + BY_LETTER.length) return null;
+        return BY_LETTER[letter - 'A'];
+    }
+}
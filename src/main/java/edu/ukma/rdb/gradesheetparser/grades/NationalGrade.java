@@ -0,0 +1,96 @@
+package edu.ukma.rdb.gradesheetparser.grades;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * National grades that may appear on a sheet, with the range of sums each one stands for.
+ * Grades for students who did not sit the control have no range.
+ */
+@Getter
+public enum NationalGrade {
+    PASSED("Зараховано", 60, Integer.MAX_VALUE, ControlForm.CREDIT),
+    NOT_PASSED("Не зараховано", Integer.MIN_VALUE, 59, ControlForm.CREDIT),
+    EXCELLENT("Відмінно", 91, Integer.MAX_VALUE, ControlForm.EXAM),
+    GOOD("Добре", 71, 90, ControlForm.EXAM),
+    SATISFACTORY("Задовільно", 60, 70, ControlForm.EXAM),
+    UNSATISFACTORY("Незадовільно", Integer.MIN_VALUE, 59, ControlForm.EXAM),
+    ABSENT("Не відвідував", true, Attendance.MISSING, ControlForm.CREDIT, ControlForm.EXAM),
+    // not counted in the footer of a parsed sheet
+    ABSENT_FEMALE("Не відвідувала", true, null, ControlForm.CREDIT),
+    // spelled like this in the list of exam grades; not treated as an absence
+    ABSENT_FEMALE_EXAM("Не відвідувла", false, Attendance.MISSING, ControlForm.EXAM),
+    NOT_ADMITTED("Не допущений", true, Attendance.BANNED, ControlForm.CREDIT, ControlForm.EXAM),
+    NOT_ADMITTED_FEMALE("Не допущена", true, Attendance.BANNED, ControlForm.CREDIT, ControlForm.EXAM);
+
+    private static final NationalGrade[] VALUES = values();
+    private static final Map<String, NationalGrade> BY_NAME = new HashMap<>();
+
+    static {
+        for (NationalGrade grade : VALUES) BY_NAME.put(grade.name, grade);
+    }
+
+    private final String name;
+    // lower case without spaces, as rows are read
+    @Getter(AccessLevel.NONE)
+    private final String normalizedName;
+    private final int minSum;
+    private final int maxSum;
+    /**
+     * The student did not sit the control, so missing grades in the row are expected.
+     */
+    private final boolean absence;
+    private final Attendance attendance;
+    private final EnumSet<ControlForm> controlForms;
+
+    NationalGrade(String name, int minSum, int maxSum, ControlForm... controlForms) {
+        this(name, minSum, maxSum, false, Attendance.PRESENT, controlForms);
+    }
+
+    NationalGrade(String name, boolean absence, Attendance attendance, ControlForm... controlForms) {
+        this(name, Integer.MIN_VALUE, Integer.MAX_VALUE, absence, attendance, controlForms);
+    }
+
+    NationalGrade(String name, int minSum, int maxSum, boolean absence, Attendance attendance,
+                  ControlForm[] controlForms) {
+        this.name = name;
+        this.normalizedName = name.replace(" ", "").toLowerCase();
+        this.minSum = minSum;
+        this.maxSum = maxSum;
+        this.absence = absence;
+        this.attendance = attendance;
+        this.controlForms = EnumSet.noneOf(ControlForm.class);
+        for (ControlForm form : controlForms) this.controlForms.add(form);
+    }
+
+    public boolean accepts(int sum) {
+        return sum >= minSum && sum <= maxSum;
+    }
+
+    public boolean isAllowedIn(ControlForm form) {
+        return controlForms.contains(form);
+    }
+
+    /**
+     * @param name the grade exactly as it is written on a sheet
+     */
+    public static NationalGrade of(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    /**
+     * Compares the characters in place, so a row reader can pass its buffer without making a string of it.
+     *
+     * @param normalizedName the grade in lower case with all whitespace removed
+     */
+    public static NationalGrade ofNormalized(CharSequence normalizedName) {
+        if (normalizedName == null) return null;
+        for (NationalGrade grade : VALUES)
+            if (grade.normalizedName.contentEquals(normalizedName)) return grade;
+        return null;
+    }
+}
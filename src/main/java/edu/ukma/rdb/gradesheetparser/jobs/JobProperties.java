@@ -0,0 +1,27 @@
+package edu.ukma.rdb.gradesheetparser.jobs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.jobs")
+public class JobProperties {
+    /**
+     * Jobs that run at the same time; their files share the batch worker pool.
+     */
+    private int concurrentJobs = 2;
+    /**
+     * Most jobs kept, finished or not. New jobs are rejected while all of them are still unfinished.
+     */
+    private int maxJobs = 100;
+    /**
+     * How long results of a finished job can be fetched.
+     */
+    private long ttlMillis = 60 * 60 * 1000;
+    /**
+     * Value of the Retry-After header sent when a job is rejected.
+     */
+    private int retryAfterSeconds = 30;
+}
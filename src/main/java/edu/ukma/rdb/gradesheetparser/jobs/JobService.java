@@ -0,0 +1,138 @@
+package edu.ukma.rdb.gradesheetparser.jobs;
+
+import edu.ukma.rdb.gradesheetparser.batch.BatchItem;
+import edu.ukma.rdb.gradesheetparser.batch.BatchParser;
+import edu.ukma.rdb.gradesheetparser.exceptions.JobNotFinishedException;
+import edu.ukma.rdb.gradesheetparser.exceptions.JobNotFoundException;
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseQueueFullException;
+import edu.ukma.rdb.gradesheetparser.models.BatchParseResult;
+import edu.ukma.rdb.gradesheetparser.models.JobStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses batches in the background. Submitting returns at once with a job id; the uploads are spooled
+ * to temporary files and the job's files are parsed on the batch worker pool, a few jobs at a time in submission
+ * order. Finished jobs are kept for {@code parser.jobs.ttl-millis}.
+ * Every file is deleted as soon as it is parsed, and whatever is left once its job finishes, so only jobs that
+ * are queued or running hold temporary files. In the worst case that is {@code parser.jobs.max-jobs} jobs of
+ * {@code parser.batch.max-files} ZIP entries of {@code parser.batch.max-entry-bytes} each: about 2 TB with
+ * the defaults. Lower these limits to fit the temporary directory.
+ */
+@Slf4j
+@Service
+public class JobService implements DisposableBean {
+    private final BatchParser batchParser;
+    private final JobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final LinkedHashMap<String, ParseJob> jobs = new LinkedHashMap<>();
+
+    public JobService(BatchParser batchParser, JobProperties properties) {
+        this.batchParser = batchParser;
+        this.properties = properties;
+        AtomicInteger threadNo = new AtomicInteger();
+        // the queue needs no bound of its own, the job store is bounded
+        this.executor = new ThreadPoolExecutor(properties.getConcurrentJobs(), properties.getConcurrentJobs(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "parse-job-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public JobStatus submit(List<MultipartFile> inputs) throws IOException {
+        return start(batchParser.spool(inputs));
+    }
+
+    public JobStatus submitZip(InputStream zip) throws IOException {
+        return start(batchParser.spoolZip(zip));
+    }
+
+    public JobStatus getStatus(String id) {
+        return find(id).getStatus();
+    }
+
+    public List<BatchParseResult> getResults(String id) {
+        ParseJob job = find(id);
+        if (!job.isFinished()) throw new JobNotFinishedException("Завдання ще виконується.");
+        return job.getResults();
+    }
+
+    private JobStatus start(List<BatchItem> items) {
+        ParseJob job = new ParseJob(UUID.randomUUID().toString(), items);
+        synchronized (jobs) {
+            evict(true);
+            if (jobs.size() >= properties.getMaxJobs()) {
+                job.discardItems();
+                throw new ParseQueueFullException("Забагато завдань у черзі, спробуйте пізніше.",
+                        properties.getRetryAfterSeconds());
+            }
+            jobs.put(job.getId(), job);
+        }
+        executor.execute(() -> run(job));
+        return job.getStatus();
+    }
+
+    private void run(ParseJob job) {
+        job.started();
+        String error = null;
+        try {
+            batchParser.parse(job.getItems(), job::completed);
+        } catch (Exception e) {
+            log.warn("Parse job {} failed", job.getId(), e);
+            error = "Не вдалося виконати завдання.";
+        } finally {
+            job.discardItems();
+        }
+        job.finished(error);
+    }
+
+    private ParseJob find(String id) {
+        ParseJob job;
+        synchronized (jobs) {
+            evict(false);
+            job = jobs.get(id);
+        }
+        if (job == null) throw new JobNotFoundException("Завдання не знайдено.");
+        return job;
+    }
+
+    // drops expired jobs and, to make room for a new one, the oldest finished ones while the store is full
+    private void evict(boolean makeRoom) {
+        long now = System.currentTimeMillis();
+        int excess = makeRoom ? jobs.size() - properties.getMaxJobs() + 1 : 0;
+        Iterator<ParseJob> oldestFirst = jobs.values().iterator();
+        while (oldestFirst.hasNext()) {
+            ParseJob job = oldestFirst.next();
+            if (!job.isFinished()) continue;
+            if (now - job.getFinishedAt() > properties.getTtlMillis() || excess > 0) {
+                oldestFirst.remove();
+                excess--;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        // jobs still queued never run
+        synchronized (jobs) {
+            for (ParseJob job : jobs.values())
+                if (!job.isFinished()) job.discardItems();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package edu.ukma.rdb.gradesheetparser.jobs;
+
+import edu.ukma.rdb.gradesheetparser.batch.BatchItem;
+import edu.ukma.rdb.gradesheetparser.models.BatchParseResult;
+import edu.ukma.rdb.gradesheetparser.models.JobStatus;
+import edu.ukma.rdb.gradesheetparser.models.JobStatus.State;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+class ParseJob {
+    @Getter
+    private final String id;
+    @Getter
+    private final List<BatchItem> items;
+    private final AtomicReferenceArray<BatchParseResult> results;
+    private final AtomicInteger done = new AtomicInteger();
+    private volatile State state = State.QUEUED;
+    private volatile String error;
+    @Getter
+    private volatile long finishedAt;
+
+    ParseJob(String id, List<BatchItem> items) {
+        this.id = id;
+        this.items = items;
+        this.results = new AtomicReferenceArray<>(items.size());
+    }
+
+    void started() {
+        state = State.RUNNING;
+    }
+
+    void completed(int index, BatchParseResult result) {
+        results.set(index, result);
+        done.incrementAndGet();
+    }
+
+    /**
+     * Deletes the spooled files of the job's items; parsing deletes each file as soon as it is parsed.
+     */
+    void discardItems() {
+        items.forEach(BatchItem::discard);
+    }
+
+    void finished(String error) {
+        this.error = error;
+        finishedAt = System.currentTimeMillis();
+        state = error == null ? State.DONE : State.FAILED;
+    }
+
+    boolean isFinished() {
+        State current = state;
+        return current == State.DONE || current == State.FAILED;
+    }
+
+    JobStatus getStatus() {
+        return new JobStatus(id, state, results.length(), done.get(), error);
+    }
+
+    List<BatchParseResult> getResults() {
+        BatchParseResult[] copy = new BatchParseResult[results.length()];
+        for (int i = 0; i < copy.length; i++) copy[i] = results.get(i);
+        return Arrays.asList(copy);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.ukma.rdb.gradesheetparser.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ParseStage {
+    WAIT("wait"),
+    LOAD("load"),
+    CLASSIFY("classify"),
+    STRIP("strip"),
+    NORMALIZE("normalize"),
+    HEADER("header"),
+    TABLE("table"),
+    VALIDATE("validate");
+
+    private final String tag;
+}
@@ -0,0 +1,123 @@
+package edu.ukma.rdb.gradesheetparser.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters for the parse and validate pipelines. All meters are registered up front,
+ * so recording on the request path is a plain array lookup.
+ */
+@Component
+public class ParserMetrics {
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Timer[] stageTimers = new Timer[ParseStage.values().length];
+    private final DistributionSummary pages;
+    private final DistributionSummary rows;
+    private final DistributionSummary uploadBytes;
+    private final Counter[][] sheets = new Counter[Operation.values().length][2];
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheEvictions;
+    private final MeterRegistry registry;
+
+    public ParserMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (ParseStage stage : ParseStage.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder("parser.stage")
+                    .description("Time spent in one stage of parsing or validating a sheet")
+                    .tag("stage", stage.getTag())
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        pages = DistributionSummary.builder("parser.document.pages")
+                .description("Pages per parsed document")
+                .publishPercentileHistogram()
+                .register(registry);
+        rows = DistributionSummary.builder("parser.document.rows")
+                .description("Student rows per parsed sheet")
+                .publishPercentileHistogram()
+                .register(registry);
+        uploadBytes = DistributionSummary.builder("parser.document.size")
+                .description("Size of parsed uploads")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        for (Operation operation : Operation.values()) {
+            for (int valid = 0; valid < 2; valid++) {
+                sheets[operation.ordinal()][valid] = Counter.builder("parser.sheets")
+                        .description("Sheets parsed or checked, by outcome")
+                        .tag("operation", operation.getTag())
+                        .tag("valid", String.valueOf(valid == 1))
+                        .register(registry);
+            }
+        }
+        cacheHits = Counter.builder("parser.cache.hits")
+                .description("Uploads answered from the parse result cache")
+                .register(registry);
+        cacheMisses = Counter.builder("parser.cache.misses")
+                .description("Uploads looked up in the parse result cache and parsed")
+                .register(registry);
+        cacheEvictions = Counter.builder("parser.cache.evictions")
+                .description("Sheets dropped from the parse result cache, expired or over the limit")
+                .register(registry);
+    }
+
+    /**
+     * @param startedNanos {@link System#nanoTime()} when the stage began
+     */
+    public void recordStage(ParseStage stage, long startedNanos) {
+        stageTimers[stage.ordinal()].record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDocument(int pageCount, long sizeBytes) {
+        pages.record(pageCount);
+        uploadBytes.record(sizeBytes);
+    }
+
+    public void recordRows(int rowCount) {
+        rows.record(rowCount);
+    }
+
+    public void recordSheet(Operation operation, Boolean isValid) {
+        sheets[operation.ordinal()][Boolean.TRUE.equals(isValid) ? 1 : 0].increment();
+    }
+
+    public void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public void recordCacheEviction() {
+        cacheEvictions.increment();
+    }
+
+    /**
+     * Registers {@code parser.cache.size}, read from {@code cache} whenever the registry is scraped.
+     */
+    public <T> void gaugeCacheSize(T cache, ToDoubleFunction<T> size) {
+        Gauge.builder("parser.cache.size", cache, size)
+                .description("Sheets held in the parse result cache")
+                .register(registry);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Operation {
+        PARSE("parse"),
+        CHECK_CHAD("check-chad-student-sheet"),
+        CHECK_BIGUNETS("check-bigunets"),
+        RECHECK_CHAD("recheck-chad-student-sheet");
+
+        private final String tag;
+    }
+}
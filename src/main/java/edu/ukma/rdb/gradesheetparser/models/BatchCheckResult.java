@@ -0,0 +1,17 @@
+package edu.ukma.rdb.gradesheetparser.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BatchCheckResult {
+    @Nullable
+    private GradeSheet sheet;
+    @Nullable
+    private String error;
+}
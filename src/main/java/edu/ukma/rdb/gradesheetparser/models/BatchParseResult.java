@@ -0,0 +1,18 @@
+package edu.ukma.rdb.gradesheetparser.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BatchParseResult {
+    private String fileName;
+    @Nullable
+    private GradeSheet sheet;
+    @Nullable
+    private String error;
+}
@@ -1,10 +1,12 @@
 package edu.ukma.rdb.gradesheetparser.models;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
+@JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
 public class Bigunets extends GradeSheet {
     String cause;
     boolean causeChanged;
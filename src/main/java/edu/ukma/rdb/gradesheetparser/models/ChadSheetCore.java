@@ -1,10 +1,12 @@
 package edu.ukma.rdb.gradesheetparser.models;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
+@JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
 public class ChadSheetCore extends GradeSheet {
     Integer present;
     boolean presentChanged;
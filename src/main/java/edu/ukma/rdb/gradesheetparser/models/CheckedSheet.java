@@ -0,0 +1,17 @@
+package edu.ukma.rdb.gradesheetparser.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CheckedSheet {
+    private String id;
+    /**
+     * Grows with every edit; an edit must name the version it was made on.
+     */
+    private long version;
+    private ChadStudentsSheet sheet;
+}
@@ -1,12 +1,24 @@
 package edu.ukma.rdb.gradesheetparser.models;
 
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.Data;
 import org.springframework.lang.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A sheet read as {@code GradeSheet} is bound to the model of its {@code sheetType}; a sheet without a known type
+ * is read as a {@link ChadSheetCore}. A sheet read as one of the models is bound to it whatever its type says.
+ */
 @Data
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "sheetType",
+        visible = true, defaultImpl = ChadSheetCore.class)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ChadSheetCore.class, name = "ЗАЛІКОВО-ЕКЗАМЕНАЦІЙНА ВІДОМІСТЬ"),
+        @JsonSubTypes.Type(value = Bigunets.class, name = "ЗАЛІКОВО-ЕКЗАМЕНАЦІЙНИЙ ЛИСТОК")
+})
 public class GradeSheet {
     protected String sheetType;
     @Nullable
@@ -67,6 +79,14 @@ public class GradeSheet {
     }
 
     public void resetDefaults() {
+        resetHeaderDefaults();
+        studentsData.forEach(StudentData::resetDefaults);
+    }
+
+    /**
+     * Same as {@link #resetDefaults()}, but leaves the student rows alone.
+     */
+    public void resetHeaderDefaults() {
         sheetCodeError = null;
         okrError = null;
         facultyError = null;
@@ -80,7 +100,6 @@ public class GradeSheet {
         teacherNameError = null;
         teacherRankError = null;
         deanError = null;
-        studentsData.forEach(StudentData::resetDefaults);
 
         sheetCodeChanged = false;
         okrChanged = false;
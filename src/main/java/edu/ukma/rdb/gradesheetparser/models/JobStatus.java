@@ -0,0 +1,21 @@
+package edu.ukma.rdb.gradesheetparser.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class JobStatus {
+    public enum State {QUEUED, RUNNING, DONE, FAILED}
+
+    private String id;
+    private State state;
+    private int total;
+    private int done;
+    @Nullable
+    private String error;
+}
@@ -0,0 +1,120 @@
+package edu.ukma.rdb.gradesheetparser.models;
+
+import lombok.Value;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Copies properties between model classes. It picks the same properties as {@link BeanUtils#copyProperties(Object, Object)}.
+ * Accessors are compiled into lambdas once per pair of classes, so a copy costs plain method calls instead of
+ * reflective ones. Student rows, dates and lists are copied too, so the copy shares no mutable state with the source.
+ */
+public final class ModelCopier {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Class<?>, Map<Class<?>, Property[]>> PROPERTIES = new ConcurrentHashMap<>();
+
+    private ModelCopier() {
+    }
+
+    /**
+     * Copies every property readable on {@code source} and writable on {@code target}.
+     *
+     * @return {@code target}
+     */
+    public static <T> T copy(Object source, T target) {
+        for (Property property : properties(source.getClass(), target.getClass()))
+            property.getSetter().accept(target, deepCopy(property.getGetter().apply(source)));
+        return target;
+    }
+
+    private static Object deepCopy(Object value) {
+        if (value instanceof StudentData) return copy(value, new StudentData());
+        if (value instanceof CustomDate) return copy(value, new CustomDate());
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> copied = new ArrayList<>(list.size());
+            for (Object element : list) copied.add(deepCopy(element));
+            return copied;
+        }
+        return value;
+    }
+
+    private static Property[] properties(Class<?> source, Class<?> target) {
+        return PROPERTIES.computeIfAbsent(source, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(target, t -> compile(source, target));
+    }
+
+    private static Property[] compile(Class<?> source, Class<?> target) {
+        List<Property> properties = new ArrayList<>();
+        for (PropertyDescriptor targetProperty : BeanUtils.getPropertyDescriptors(target)) {
+            Method setter = targetProperty.getWriteMethod();
+            if (setter == null) continue;
+            PropertyDescriptor sourceProperty = BeanUtils.getPropertyDescriptor(source, targetProperty.getName());
+            Method getter = sourceProperty == null ? null : sourceProperty.getReadMethod();
+            if (getter == null || !isAssignable(setter, getter)) continue;
+            properties.add(new Property(getter(getter), setter(setter)));
+        }
+        return properties.toArray(new Property[0]);
+    }
+
+    // the check BeanUtils.copyProperties makes
+    private static boolean isAssignable(Method setter, Method getter) {
+        ResolvableType sourceType = ResolvableType.forMethodReturnType(getter);
+        ResolvableType targetType = ResolvableType.forMethodParameter(setter, 0);
+        return sourceType.hasUnresolvableGenerics() || targetType.hasUnresolvableGenerics()
+                ? ClassUtils.isAssignable(setter.getParameterTypes()[0], getter.getReturnType())
+                : targetType.isAssignableFrom(sourceType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            return (Function<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType()),
+                            method.getDeclaringClass()))
+                    .getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot compile getter " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(),
+                            ClassUtils.resolvePrimitiveIfNecessary(method.getParameterTypes()[0])))
+                    .getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot compile setter " + method, e);
+        }
+    }
+
+    @Value
+    private static class Property {
+        Function<Object, Object> getter;
+        BiConsumer<Object, Object> setter;
+    }
+}
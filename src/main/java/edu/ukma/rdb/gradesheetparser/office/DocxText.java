@@ -0,0 +1,103 @@
+package edu.ukma.rdb.gradesheetparser.office;
+
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Text of the main part of a .docx, read with SAX: paragraphs outside tables and table rows become lines.
+ */
+final class DocxText extends DefaultHandler {
+    private static final String WORD_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder line = new StringBuilder();
+    private int tableDepth;
+    private boolean inText;
+
+    static String read(OPCPackage document)
+            throws IOException, SAXException, ParserConfigurationException, InvalidFormatException {
+        PackageRelationshipCollection main = document.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT);
+        PackagePart part = main.size() == 0 ? null : document.getPart(main.getRelationship(0));
+        if (part == null) throw new ParseStructuralError("Не вдалося прочитати документ Word або Excel.");
+        DocxText handler = new DocxText();
+        XMLReader xml = SAXHelper.newXMLReader();
+        xml.setContentHandler(handler);
+        try (InputStream input = part.getInputStream()) {
+            xml.parse(new InputSource(input));
+        }
+        return handler.text.toString();
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if (!WORD_NAMESPACE.equals(uri)) return;
+        switch (localName) {
+            case "t":
+                inText = true;
+                break;
+            case "tab":
+            case "br":
+            case "cr":
+                separate();
+                break;
+            case "tbl":
+                tableDepth++;
+                break;
+            default:
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if (!WORD_NAMESPACE.equals(uri)) return;
+        switch (localName) {
+            case "t":
+                inText = false;
+                break;
+            case "p":
+                if (tableDepth == 0) endLine();
+                else separate();
+                break;
+            case "tc":
+                separate();
+                break;
+            case "tr":
+                endLine();
+                break;
+            case "tbl":
+                tableDepth--;
+                break;
+            default:
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inText) line.append(ch, start, length);
+    }
+
+    private void separate() {
+        if (line.length() > 0 && line.charAt(line.length() - 1) != ' ') line.append(' ');
+    }
+
+    private void endLine() {
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == ' ') end--;
+        if (end > 0) text.append(line, 0, end).append(System.lineSeparator());
+        line.setLength(0);
+    }
+}
@@ -0,0 +1,51 @@
+package edu.ukma.rdb.gradesheetparser.office;
+
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import edu.ukma.rdb.gradesheetparser.pdf.PdfDocumentLoader;
+import edu.ukma.rdb.gradesheetparser.pdf.SheetReader;
+import edu.ukma.rdb.gradesheetparser.pdf.SpooledUpload;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.EmptyFileException;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+
+/**
+ * Reads Word and Excel grade sheets with POI's streaming readers into the text a PDF of the same sheet gives,
+ * so they are parsed and validated alike: a paragraph or a table row per line, table cells joined with spaces.
+ * Only the text is kept, never the whole document model. Uploads take a document slot like PDFs do.
+ */
+@Component
+@RequiredArgsConstructor
+public class OfficeBackend {
+    private final PdfDocumentLoader pdfLoader;
+
+    public <T> T read(SpooledUpload upload, OfficeFormat format, SheetReader<T> reader) throws IOException {
+        return pdfLoader.inSlot(() -> reader.read(new TextDocument(readText(upload, format))));
+    }
+
+    private String readText(SpooledUpload upload, OfficeFormat format) throws IOException {
+        long started = System.nanoTime();
+        OPCPackage document = null;
+        try {
+            document = OPCPackage.open(upload.getFile(), PackageAccess.READ);
+            String text = format == OfficeFormat.DOCX ? DocxText.read(document) : XlsxText.read(document);
+            pdfLoader.recordLoad(started);
+            return text;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException | UnsupportedFileFormatException
+                | InvalidOperationException | EmptyFileException e) {
+            // POI refuses some files that are not Word or Excel packages with runtime exceptions
+            throw new ParseStructuralError("Не вдалося прочитати документ Word або Excel.");
+        } finally {
+            // close() would try to save a package opened for reading
+            if (document != null) document.revert();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package edu.ukma.rdb.gradesheetparser.office;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OfficeFormat {
+    DOCX(".docx"),
+    XLSX(".xlsx");
+
+    private final String extension;
+
+    /**
+     * @return the format {@code fileName} has by its extension in any case, or null for PDFs and other files
+     */
+    public static OfficeFormat of(String fileName) {
+        if (fileName == null) return null;
+        String lowerCase = fileName.toLowerCase();
+        for (OfficeFormat format : values())
+            if (lowerCase.endsWith(format.extension)) return format;
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package edu.ukma.rdb.gradesheetparser.office;
+
+import edu.ukma.rdb.gradesheetparser.pdf.SheetDocument;
+import edu.ukma.rdb.gradesheetparser.pdf.SheetRegions;
+import edu.ukma.rdb.gradesheetparser.pdf.TabularText;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A document that is all read already; it counts as a single page.
+ */
+@RequiredArgsConstructor
+class TextDocument implements SheetDocument {
+    private final String text;
+
+    @Override
+    public int getNumberOfPages() {
+        return 1;
+    }
+
+    @Override
+    public String getLeadingText() {
+        return text;
+    }
+
+    @Override
+    public String getText(String leadingText) {
+        return leadingText == null ? text : leadingText;
+    }
+
+    @Override
+    public SheetRegions getRegions() {
+        return null;
+    }
+
+    @Override
+    public TabularText getTabularText() {
+        return null;
+    }
+}
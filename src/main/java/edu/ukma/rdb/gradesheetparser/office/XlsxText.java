@@ -0,0 +1,64 @@
+package edu.ukma.rdb.gradesheetparser.office;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Text of all worksheets of a .xlsx, in workbook order, read with POI's event API: every row with a value
+ * becomes a line of its cells as Excel shows them.
+ */
+final class XlsxText implements SheetContentsHandler {
+    private final StringBuilder text = new StringBuilder();
+    private int cells;
+
+    static String read(OPCPackage document)
+            throws IOException, SAXException, ParserConfigurationException, OpenXML4JException {
+        XSSFReader reader = new XSSFReader(document);
+        ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(document);
+        StylesTable styles = reader.getStylesTable();
+        DataFormatter formatter = new DataFormatter();
+        XlsxText handler = new XlsxText();
+        for (Iterator<InputStream> sheets = reader.getSheetsData(); sheets.hasNext(); ) {
+            XMLReader xml = SAXHelper.newXMLReader();
+            xml.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler, formatter, false));
+            try (InputStream sheet = sheets.next()) {
+                xml.parse(new InputSource(sheet));
+            }
+        }
+        return handler.text.toString();
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+        cells = 0;
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+        if (cells > 0) text.append(System.lineSeparator());
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+        String value = formattedValue == null ? "" : formattedValue.trim();
+        if (value.isEmpty()) return;
+        if (cells++ > 0) text.append(' ');
+        text.append(value);
+    }
+}
@@ -0,0 +1,10 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface DocumentReader<T> {
+    T read(PDDocument document) throws IOException;
+}
@@ -0,0 +1,13 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import java.io.IOException;
+
+/**
+ * A PDF library the parser can take the sheet text from. Backends open uploads under the limits of
+ * {@link PdfDocumentLoader}, and the document is closed before {@link #read} returns.
+ */
+public interface ExtractionBackend {
+    ExtractionEngine getEngine();
+
+    <T> T read(SpooledUpload upload, SheetReader<T> reader) throws IOException;
+}
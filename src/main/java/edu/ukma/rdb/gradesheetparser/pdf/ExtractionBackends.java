@@ -0,0 +1,31 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import edu.ukma.rdb.gradesheetparser.exceptions.ParseStructuralError;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the backend for a request: the one asked for, or {@link ExtractionProperties#getEngine()}.
+ */
+@Component
+public class ExtractionBackends {
+    private final ExtractionProperties properties;
+    private final Map<ExtractionEngine, ExtractionBackend> backends = new EnumMap<>(ExtractionEngine.class);
+
+    public ExtractionBackends(ExtractionProperties properties, List<ExtractionBackend> backends) {
+        this.properties = properties;
+        for (ExtractionBackend backend : backends) this.backends.put(backend.getEngine(), backend);
+    }
+
+    /**
+     * @param engine null for the configured engine
+     */
+    public ExtractionBackend get(ExtractionEngine engine) {
+        ExtractionBackend backend = backends.get(engine == null ? properties.getEngine() : engine);
+        if (backend == null) throw new ParseStructuralError("Рушій видобування тексту недоступний.");
+        return backend;
+    }
+}
@@ -0,0 +1,23 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExtractionEngine {
+    PDFBOX("pdfbox"),
+    ITEXT("itext");
+
+    private final String name;
+
+    /**
+     * @return the engine named {@code name} in any case, or null for unknown or missing names
+     */
+    public static ExtractionEngine of(String name) {
+        if (name == null) return null;
+        for (ExtractionEngine engine : values())
+            if (engine.name.equalsIgnoreCase(name)) return engine;
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.extraction")
+public class ExtractionProperties {
+    /**
+     * Library the text is taken with when the request does not ask for one.
+     */
+    private ExtractionEngine engine = ExtractionEngine.PDFBOX;
+    /**
+     * Strip the header block and the table separately by their place on the page instead of the whole text,
+     * and look for every field only in its own part. The header block must fit in {@link #headerHeight}.
+     * Engines that cannot strip by place, and Word and Excel sheets, are still parsed from the whole text.
+     */
+    private boolean regions = false;
+    /**
+     * Height of the header block from the top of the first page, in PDF points.
+     */
+    private float headerHeight = 200;
+    /**
+     * Read the student table by where its words are on the page instead of from the flattened text; PDFBox only.
+     * Sheets whose table headings are not found are still parsed from the whole text.
+     */
+    private boolean table = false;
+    /**
+     * Strip the pages of long documents in parallel.
+     */
+    private boolean parallel = true;
+    /**
+     * Threads shared by all documents that are stripped in parallel.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * Fewest pages a thread is given; shorter documents are stripped on the request thread alone.
+     */
+    private int minPagesPerTask = 2;
+    /**
+     * Page ranges waiting for a thread; when the queue is full the request thread strips the range itself.
+     */
+    private int queueCapacity = 64;
+    /**
+     * Leading pages stripped first to tell whether the document is a grade sheet at all; other documents are
+     * rejected without stripping the rest. 0 strips the whole document before looking.
+     */
+    private int classifyPages = 1;
+    /**
+     * Drop glyphs drawn again over themselves, as some editors draw bold text. Checking every glyph for that
+     * takes more than half of what stripping allocates, so it can be turned off where sheets are not drawn so.
+     */
+    private boolean suppressDuplicateText = true;
+}
@@ -0,0 +1,90 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Text by iText's {@link PdfTextExtractor}, page by page on the request thread. The upload is read partially
+ * straight from its file, so only the objects of the page being extracted are held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ITextBackend implements ExtractionBackend {
+    private final PdfDocumentLoader pdfLoader;
+    private final ExtractionProperties properties;
+
+    @Override
+    public ExtractionEngine getEngine() {
+        return ExtractionEngine.ITEXT;
+    }
+
+    @Override
+    public <T> T read(SpooledUpload upload, SheetReader<T> reader) throws IOException {
+        return pdfLoader.inSlot(() -> {
+            PdfReader pdf = open(upload);
+            try {
+                pdfLoader.checkPages(pdf.getNumberOfPages());
+                return reader.read(new Document(pdf));
+            } finally {
+                pdf.close();
+            }
+        });
+    }
+
+    private PdfReader open(SpooledUpload upload) throws IOException {
+        long started = System.nanoTime();
+        PdfReader pdf = new PdfReader(new RandomAccessFileOrArray(new RandomAccessSourceFactory()
+                .setUsePlainRandomAccess(true)
+                .createBestSource(upload.getFile().getPath())), null);
+        pdfLoader.recordLoad(started);
+        return pdf;
+    }
+
+    @RequiredArgsConstructor
+    private class Document implements SheetDocument {
+        private final PdfReader pdf;
+
+        @Override
+        public int getNumberOfPages() {
+            return pdf.getNumberOfPages();
+        }
+
+        @Override
+        public String getLeadingText() throws IOException {
+            return getText(1, Math.min(properties.getClassifyPages(), pdf.getNumberOfPages()));
+        }
+
+        @Override
+        public String getText(String leadingText) throws IOException {
+            if (leadingText == null) return getText(1, pdf.getNumberOfPages());
+            return leadingText + getText(Math.min(properties.getClassifyPages(), pdf.getNumberOfPages()) + 1,
+                    pdf.getNumberOfPages());
+        }
+
+        @Override
+        public SheetRegions getRegions() {
+            return null;
+        }
+
+        @Override
+        public TabularText getTabularText() {
+            return null;
+        }
+
+        private String getText(int startPage, int endPage) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (int page = startPage; page <= endPage; page++) {
+                // iText ends lines with \n, the parser expects them as PDFTextStripper writes them
+                text.append(PdfTextExtractor.getTextFromPage(pdf, page).replace("\n", System.lineSeparator()));
+                text.append(System.lineSeparator());
+            }
+            return text.toString();
+        }
+    }
+}
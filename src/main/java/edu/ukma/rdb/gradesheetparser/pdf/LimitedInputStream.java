@@ -0,0 +1,49 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import edu.ukma.rdb.gradesheetparser.exceptions.DocumentTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fails with {@link DocumentTooLargeException} as soon as more than the allowed number of bytes is read,
+ * so an oversized upload is never read to the end.
+ */
+class LimitedInputStream extends FilterInputStream {
+    private final long maxBytes;
+    private final String message;
+    private long count;
+
+    LimitedInputStream(InputStream in, long maxBytes, String message) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.message = message;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) counted(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) counted(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        counted(skipped);
+        return skipped;
+    }
+
+    private void counted(long n) {
+        count += n;
+        if (count > maxBytes) throw new DocumentTooLargeException(message);
+    }
+}
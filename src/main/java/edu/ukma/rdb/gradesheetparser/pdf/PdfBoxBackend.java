@@ -0,0 +1,59 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Text by PDFBox through {@link TextExtractor}: long documents are stripped in parallel, region and table modes are supported.
+ */
+@Component
+@RequiredArgsConstructor
+public class PdfBoxBackend implements ExtractionBackend {
+    private final PdfDocumentLoader pdfLoader;
+    private final TextExtractor textExtractor;
+
+    @Override
+    public ExtractionEngine getEngine() {
+        return ExtractionEngine.PDFBOX;
+    }
+
+    @Override
+    public <T> T read(SpooledUpload upload, SheetReader<T> reader) throws IOException {
+        return pdfLoader.read(upload, document -> reader.read(new Document(document, upload.getFile())));
+    }
+
+    @RequiredArgsConstructor
+    private class Document implements SheetDocument {
+        private final PDDocument document;
+        private final File pdf;
+
+        @Override
+        public int getNumberOfPages() {
+            return document.getNumberOfPages();
+        }
+
+        @Override
+        public String getLeadingText() throws IOException {
+            return textExtractor.getLeadingText(document);
+        }
+
+        @Override
+        public String getText(String leadingText) throws IOException {
+            return textExtractor.getText(document, pdf, leadingText);
+        }
+
+        @Override
+        public SheetRegions getRegions() throws IOException {
+            return textExtractor.getRegions(document);
+        }
+
+        @Override
+        public TabularText getTabularText() throws IOException {
+            return textExtractor.getTabularText(document);
+        }
+    }
+}
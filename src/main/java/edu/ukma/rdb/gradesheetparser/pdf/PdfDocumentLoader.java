@@ -0,0 +1,170 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import edu.ukma.rdb.gradesheetparser.exceptions.DocumentTooLargeException;
+import edu.ukma.rdb.gradesheetparser.exceptions.ParserOverloadedException;
+import edu.ukma.rdb.gradesheetparser.metrics.ParseStage;
+import edu.ukma.rdb.gradesheetparser.metrics.ParserMetrics;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens uploaded PDFs under a bounded memory policy: uploads are spooled to temporary files that PDFBox reads
+ * in place, every document gets a capped heap buffer backed by a scratch file, and only a fixed number of
+ * documents are open at once, copies opened to read a document in parallel included. Uploads over the size or
+ * page limit are rejected with {@link DocumentTooLargeException}.
+ * Documents are always closed before {@link #read} returns.
+ */
+@Component
+public class PdfDocumentLoader {
+    private final PdfMemoryProperties properties;
+    private final ParserMetrics metrics;
+    private final Semaphore openDocuments;
+
+    public PdfDocumentLoader(PdfMemoryProperties properties, ParserMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.openDocuments = new Semaphore(properties.getMaxOpenDocuments(), true);
+    }
+
+    public <T> T read(SpooledUpload upload, DocumentReader<T> reader) throws IOException {
+        return inSlot(() -> {
+            try (PDDocument document = load(upload.getFile())) {
+                checkPages(document.getNumberOfPages());
+                return reader.read(document);
+            }
+        });
+    }
+
+    /**
+     * Runs {@code task} once a document slot is free; for backends that open uploads with another library.
+     */
+    public <T> T inSlot(SlotTask<T> task) throws IOException {
+        long started = System.nanoTime();
+        acquire();
+        metrics.recordStage(ParseStage.WAIT, started);
+        try {
+            return task.run();
+        } finally {
+            openDocuments.release();
+        }
+    }
+
+    void checkPages(int pages) {
+        if (pages > properties.getMaxPages())
+            throw new DocumentTooLargeException("Документ задовгий, максимум " + properties.getMaxPages() + " сторінок.");
+    }
+
+    public void recordLoad(long started) {
+        metrics.recordStage(ParseStage.LOAD, started);
+    }
+
+    /**
+     * Moves a multipart upload to a temporary file; the servlet container usually has it on disk already,
+     * so no bytes are copied. An upload whose declared size is over the limit is rejected without reading it.
+     */
+    public SpooledUpload spool(MultipartFile input) throws IOException {
+        if (input.getSize() > properties.getMaxUploadBytes())
+            throw new DocumentTooLargeException(tooLarge(properties.getMaxUploadBytes()));
+        SpooledUpload upload = new SpooledUpload(createTempFile());
+        try {
+            input.transferTo(upload.getFile());
+            return upload;
+        } catch (IOException | RuntimeException e) {
+            upload.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copies an upload to a temporary file, failing as soon as more than the size limit has been read.
+     * {@code input} is left open.
+     */
+    public SpooledUpload spool(InputStream input) throws IOException {
+        return spool(input, properties.getMaxUploadBytes());
+    }
+
+    public SpooledUpload spool(InputStream input, long maxBytes) throws IOException {
+        SpooledUpload upload = new SpooledUpload(createTempFile());
+        try (OutputStream out = Files.newOutputStream(upload.getFile().toPath())) {
+            StreamUtils.copy(new LimitedInputStream(input, maxBytes, tooLarge(maxBytes)), out);
+            return upload;
+        } catch (IOException | RuntimeException e) {
+            upload.close();
+            throw e;
+        }
+    }
+
+    private static String tooLarge(long maxBytes) {
+        return "Файл завеликий, максимум " + maxBytes / 1024 + " КБ.";
+    }
+
+    /**
+     * Reads another copy of a document that is already open through {@link #read}. The copy takes a slot of its
+     * own, but only one free right now: the caller holds a slot already, and waiting for another could leave
+     * every request waiting on the others.
+     *
+     * @return what {@code reader} returned, or null when no slot was free and the copy was not opened
+     */
+    <T> T readCopy(File pdf, DocumentReader<T> reader) throws IOException {
+        if (!openDocuments.tryAcquire()) return null;
+        try (PDDocument copy = PDDocument.load(pdf, memoryUsageSetting())) {
+            return reader.read(copy);
+        } finally {
+            openDocuments.release();
+        }
+    }
+
+    private PDDocument load(File pdf) throws IOException {
+        long started = System.nanoTime();
+        PDDocument document = PDDocument.load(pdf, memoryUsageSetting());
+        recordLoad(started);
+        return document;
+    }
+
+    private void acquire() throws InterruptedIOException {
+        try {
+            if (!openDocuments.tryAcquire(properties.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS))
+                throw new ParserOverloadedException("Сервер перевантажений, спробуйте пізніше.",
+                        (int) Math.max(1, properties.getAcquireTimeoutMillis() / 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Очікування на обробку документа перервано.");
+        }
+    }
+
+    private File createTempFile() throws IOException {
+        return hasTempDir()
+                ? Files.createTempFile(new File(properties.getTempDir()).toPath(), "upload-", ".pdf").toFile()
+                : Files.createTempFile("upload-", ".pdf").toFile();
+    }
+
+    private boolean hasTempDir() {
+        return properties.getTempDir() != null && !properties.getTempDir().isEmpty();
+    }
+
+    private MemoryUsageSetting memoryUsageSetting() {
+        MemoryUsageSetting setting = properties.getMaxStorageBytes() < 0
+                ? MemoryUsageSetting.setupMixed(properties.getMaxMainMemoryBytes())
+                : MemoryUsageSetting.setupMixed(properties.getMaxMainMemoryBytes(), properties.getMaxStorageBytes());
+        if (hasTempDir())
+            setting.setTempDir(new File(properties.getTempDir()));
+        return setting;
+    }
+
+    @FunctionalInterface
+    public interface SlotTask<T> {
+        T run() throws IOException;
+    }
+}
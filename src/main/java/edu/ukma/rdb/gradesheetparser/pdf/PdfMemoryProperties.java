@@ -0,0 +1,39 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("parser.pdf")
+public class PdfMemoryProperties {
+    /**
+     * Heap a single document may use for its buffers before PDFBox spills to a scratch file.
+     */
+    private long maxMainMemoryBytes = 8 * 1024 * 1024;
+    /**
+     * Scratch file limit per document, -1 for unlimited.
+     */
+    private long maxStorageBytes = -1;
+    /**
+     * Directory for spooled uploads and scratch files, the JVM temp directory when empty.
+     */
+    private String tempDir;
+    /**
+     * Documents that may be open at the same time across all requests.
+     */
+    private int maxOpenDocuments = 2 * Runtime.getRuntime().availableProcessors();
+    /**
+     * How long a request waits for a free document slot before it is rejected.
+     */
+    private long acquireTimeoutMillis = 30_000;
+    /**
+     * Largest upload that is opened, in bytes; larger ones are rejected before PDFBox reads them.
+     */
+    private long maxUploadBytes = 20 * 1024 * 1024;
+    /**
+     * Most pages a document may have.
+     */
+    private int maxPages = 100;
+}
@@ -0,0 +1,32 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import java.io.IOException;
+
+/**
+ * A document opened by an {@link ExtractionBackend}. Text is laid out the way {@code PDFTextStripper} does it:
+ * lines in reading order, each ended with the platform line separator, so every backend feeds the parser alike.
+ */
+public interface SheetDocument {
+    int getNumberOfPages();
+
+    /**
+     * Text of the leading pages that tell what kind of document it is, see {@link ExtractionProperties#getClassifyPages()}.
+     */
+    String getLeadingText() throws IOException;
+
+    /**
+     * @param leadingText what {@link #getLeadingText} returned, or null; only the pages after the leading ones
+     *                    are extracted again
+     */
+    String getText(String leadingText) throws IOException;
+
+    /**
+     * @return the header block and the table stripped apart, or null when the backend cannot tell them apart
+     */
+    SheetRegions getRegions() throws IOException;
+
+    /**
+     * @return the whole text with the student table read by cell, or null when the backend cannot read cells
+     */
+    TabularText getTabularText() throws IOException;
+}
@@ -0,0 +1,8 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface SheetReader<T> {
+    T read(SheetDocument document) throws IOException;
+}
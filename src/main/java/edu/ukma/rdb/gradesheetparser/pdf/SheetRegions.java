@@ -0,0 +1,13 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.Value;
+
+/**
+ * Text of a sheet stripped by layout: the header block at the top of the first page,
+ * and the body with the student table and the footer below it on all pages.
+ */
+@Value
+public class SheetRegions {
+    String header;
+    String body;
+}
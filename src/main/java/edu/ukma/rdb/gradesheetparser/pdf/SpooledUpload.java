@@ -0,0 +1,73 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * An upload written to a temporary file, see {@link PdfDocumentLoader#spool}. PDFBox reads the file in place,
+ * so the document's bytes are not held on the heap however large it is. The file is deleted on {@link #close()}.
+ */
+public class SpooledUpload implements InputStreamSource, Closeable {
+    private static final int DIGEST_BUFFER_BYTES = 64 * 1024;
+
+    private final File file;
+
+    SpooledUpload(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return file.length();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FileInputStream(file);
+    }
+
+    /**
+     * @return a SHA-256 digest, the hash an upload is known by in the result cache and the text dumps
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Hashes the file through a fixed-size buffer instead of reading it into memory.
+     */
+    public byte[] digest(MessageDigest digest) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_BYTES);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    @Override
+    public void close() {
+        file.delete();
+    }
+}
@@ -0,0 +1,198 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import edu.ukma.rdb.gradesheetparser.extraction.StudentColumn;
+import edu.ukma.rdb.gradesheetparser.pdf.TableStripper.Word;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads the student table from where its words are on the page instead of from the flattened text.
+ * Columns are found by their headings, see {@link StudentColumn#getHeading()}; a word belongs to the column
+ * it is under, the border between two columns lying halfway between their headings. A row starts with a number
+ * in the first column. Lines right below it with text only in the name, book number or national grade columns
+ * are the same row wrapped; any other line, such as the headings repeated on the next page, is skipped.
+ * The table ends at the footnote mark, as it does in the text.
+ */
+final class TableLayout {
+    private static final String SIGNATURE_HEADING = "підпис";
+    private static final StudentColumn[] COLUMNS = StudentColumn.values();
+    // the signature column follows the student columns and its cells are dropped
+    private static final int SIGNATURE = COLUMNS.length;
+    private static final StudentColumn[] NUMBER_COLUMNS = {StudentColumn.ORDINAL, StudentColumn.TERM_GRADE,
+            StudentColumn.EXAM_GRADE, StudentColumn.SUM, StudentColumn.ECTS_GRADE};
+    // how far from the ECTS heading the other headings are looked for, in line heights
+    private static final float HEADING_LINES = 3;
+    // how far below a row its wrapped line may be, in line heights
+    private static final float WRAP_LINES = 2.5f;
+    // a gap wider than this many spaces parts two heading cells
+    private static final float CELL_GAP_SPACES = 2;
+
+    private TableLayout() {
+    }
+
+    /**
+     * @return cells of every student row indexed by {@link StudentColumn}, or null when the headings or
+     * the end of the table are not found, or the table has no rows
+     */
+    static List<String[]> rows(List<Word> words) {
+        List<Line> lines = lines(words);
+        int ects = -1;
+        for (int i = 0; i < lines.size() && ects < 0; i++)
+            for (Word word : lines.get(i).words)
+                if (word.getText().equalsIgnoreCase(StudentColumn.ECTS_GRADE.getHeading())) ects = i;
+        if (ects < 0) return null;
+
+        Line ectsLine = lines.get(ects);
+        float window = HEADING_LINES * ectsLine.height;
+        List<Cell> headings = new ArrayList<>();
+        int lastHeading = ects;
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (line.page != ectsLine.page || Math.abs(line.y - ectsLine.y) > window) continue;
+            headings.addAll(cells(line));
+            lastHeading = Math.max(lastHeading, i);
+        }
+
+        float[] left = new float[COLUMNS.length + 1];
+        float[] right = new float[COLUMNS.length + 1];
+        for (StudentColumn column : COLUMNS) {
+            Cell heading = heading(headings, column.getHeading(), ectsLine.y);
+            if (heading == null) return null;
+            left[column.ordinal()] = heading.left;
+            right[column.ordinal()] = heading.right;
+        }
+        Cell signature = heading(headings, SIGNATURE_HEADING, ectsLine.y);
+        int columns = signature == null ? COLUMNS.length : COLUMNS.length + 1;
+        if (signature != null) {
+            left[SIGNATURE] = signature.left;
+            right[SIGNATURE] = signature.right;
+        }
+        float[] borders = new float[columns - 1];
+        for (int c = 0; c < borders.length; c++) {
+            if (left[c + 1] < right[c]) return null;
+            borders[c] = (right[c] + left[c + 1]) / 2;
+        }
+
+        List<String[]> rows = new ArrayList<>();
+        String[] row = null;
+        Line rowLine = null;
+        for (int i = lastHeading + 1; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (line.words.get(0).getText().startsWith("*")) return rows.isEmpty() ? null : rows;
+            String[] cells = assign(line, borders, columns);
+            if (isNumber(cells[StudentColumn.ORDINAL.ordinal()])) {
+                row = Arrays.copyOf(cells, COLUMNS.length);
+                rows.add(row);
+                rowLine = line;
+            } else if (row != null && isWrapped(rowLine, line) && hasNoNumbers(cells)) {
+                for (int c = 0; c < COLUMNS.length; c++) row[c] = join(row[c], cells[c]);
+                rowLine = line;
+            }
+        }
+        return null;
+    }
+
+    private static List<Line> lines(List<Word> words) {
+        List<Word> sorted = new ArrayList<>(words);
+        sorted.sort(Comparator.comparingInt(Word::getPage).thenComparingDouble(Word::getY));
+        List<Line> lines = new ArrayList<>();
+        Line line = null;
+        for (Word word : sorted) {
+            if (line == null || line.page != word.getPage() || word.getY() - line.y > line.height / 2) {
+                line = new Line(word);
+                lines.add(line);
+            } else {
+                line.words.add(word);
+            }
+        }
+        for (Line l : lines) l.words.sort(Comparator.comparingDouble(Word::getLeft));
+        return lines;
+    }
+
+    // heading text of one column may be several words; they are only split apart by a wide gap
+    private static List<Cell> cells(Line line) {
+        List<Cell> cells = new ArrayList<>();
+        Cell cell = null;
+        for (Word word : line.words) {
+            if (cell == null || word.getLeft() - cell.right > CELL_GAP_SPACES * word.getSpaceWidth()) {
+                cell = new Cell(line.y, word.getLeft());
+                cells.add(cell);
+            }
+            cell.text.append(word.getText().toLowerCase()).append(' ');
+            cell.right = word.getRight();
+        }
+        return cells;
+    }
+
+    // the headings of a column may wrap; the line closest to the ECTS heading is the one it is found on
+    private static Cell heading(List<Cell> headings, String text, float y) {
+        Cell closest = null;
+        for (Cell cell : headings)
+            if (cell.text.indexOf(text) >= 0 && (closest == null || Math.abs(cell.y - y) < Math.abs(closest.y - y)))
+                closest = cell;
+        return closest;
+    }
+
+    private static String[] assign(Line line, float[] borders, int columns) {
+        String[] cells = new String[columns];
+        Arrays.fill(cells, "");
+        for (Word word : line.words) {
+            float center = (word.getLeft() + word.getRight()) / 2;
+            int column = 0;
+            while (column < borders.length && center > borders[column]) column++;
+            cells[column] = join(cells[column], word.getText());
+        }
+        return cells;
+    }
+
+    private static boolean isWrapped(Line row, Line line) {
+        return line.page == row.page && line.y - row.y <= WRAP_LINES * row.height;
+    }
+
+    private static boolean hasNoNumbers(String[] cells) {
+        for (StudentColumn column : NUMBER_COLUMNS)
+            if (!cells[column.ordinal()].isEmpty()) return false;
+        return true;
+    }
+
+    private static boolean isNumber(String cell) {
+        if (cell.isEmpty()) return false;
+        for (int i = 0; i < cell.length(); i++)
+            if (cell.charAt(i) < '0' || cell.charAt(i) > '9') return false;
+        return true;
+    }
+
+    private static String join(String cell, String text) {
+        if (text.isEmpty()) return cell;
+        return cell.isEmpty() ? text : cell + " " + text;
+    }
+
+    private static class Line {
+        final int page;
+        final float y;
+        final float height;
+        final List<Word> words = new ArrayList<>();
+
+        Line(Word first) {
+            page = first.getPage();
+            y = first.getY();
+            height = first.getHeight();
+            words.add(first);
+        }
+    }
+
+    private static class Cell {
+        final float y;
+        final float left;
+        final StringBuilder text = new StringBuilder();
+        float right;
+
+        Cell(float y, float left) {
+            this.y = y;
+            this.left = left;
+        }
+    }
+}
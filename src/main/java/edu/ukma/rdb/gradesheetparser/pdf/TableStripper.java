@@ -0,0 +1,64 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.Value;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strips text as {@link PDFTextStripper} does and also keeps where every word is on the page,
+ * so one pass gives both the text for the header and the words for {@link TableLayout}.
+ */
+class TableStripper extends PDFTextStripper {
+    private final List<Word> words = new ArrayList<>();
+
+    TableStripper() throws IOException {
+    }
+
+    List<Word> getWords() {
+        return words;
+    }
+
+    @Override
+    protected void writeString(String text, List<TextPosition> textPositions) throws IOException {
+        // spaces drawn as glyphs do not split words, so a whole line may come as one string
+        int start = 0;
+        for (int i = 0; i <= textPositions.size(); i++) {
+            if (i < textPositions.size() && !isSpace(textPositions.get(i).getUnicode())) continue;
+            if (i > start) words.add(word(textPositions.subList(start, i)));
+            start = i + 1;
+        }
+        super.writeString(text, textPositions);
+    }
+
+    private Word word(List<TextPosition> positions) {
+        StringBuilder text = new StringBuilder(positions.size());
+        for (TextPosition position : positions) text.append(position.getUnicode());
+        TextPosition first = positions.get(0);
+        TextPosition last = positions.get(positions.size() - 1);
+        return new Word(text.toString(), getCurrentPageNo(), first.getXDirAdj(),
+                last.getXDirAdj() + last.getWidthDirAdj(), first.getYDirAdj(),
+                Math.max(first.getHeightDir(), 1), first.getWidthOfSpace());
+    }
+
+    private static boolean isSpace(String unicode) {
+        return unicode == null || unicode.trim().isEmpty();
+    }
+
+    /**
+     * A word as drawn on the page; y grows downwards, as {@link TextPosition#getYDirAdj()} has it.
+     */
+    @Value
+    static class Word {
+        String text;
+        int page;
+        float left;
+        float right;
+        float y;
+        float height;
+        float spaceWidth;
+    }
+}
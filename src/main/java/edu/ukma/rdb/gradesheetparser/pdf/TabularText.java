@@ -0,0 +1,18 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Text of a sheet together with its student table read by cell.
+ */
+@Value
+public class TabularText {
+    String text;
+    /**
+     * Cells of every student row indexed by {@link edu.ukma.rdb.gradesheetparser.extraction.StudentColumn},
+     * or null when the table was not found by its layout.
+     */
+    List<String[]> table;
+}
@@ -0,0 +1,179 @@
+package edu.ukma.rdb.gradesheetparser.pdf;
+
+import edu.ukma.rdb.gradesheetparser.context.ParseContext;
+import edu.ukma.rdb.gradesheetparser.context.ParseContextPool;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.awt.geom.Rectangle2D;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extracts the text of a document, splitting long documents into page ranges that are stripped in parallel.
+ * PDFBox documents are not thread-safe, so every range other than the first is stripped from its own copy
+ * of the document loaded from the upload file. A copy is an open document like any other; when no document slot
+ * is free for it, its range is stripped on the calling thread instead. The ranges are joined in page order and
+ * the result is the same as {@link PDFTextStripper#getText} on the whole document. Strippers are reused through
+ * the {@link ParseContextPool}, every range taking its own context.
+ * In region mode the header block and the rest of the pages can also be stripped apart, see {@link #getRegions};
+ * in table mode the student table is read by cell, see {@link #getTabularText}.
+ */
+@Component
+public class TextExtractor implements DisposableBean {
+    private final ExtractionProperties properties;
+    private final PdfDocumentLoader pdfLoader;
+    private final ParseContextPool contexts;
+    private final ThreadPoolExecutor executor;
+
+    public TextExtractor(ExtractionProperties properties, PdfDocumentLoader pdfLoader, ParseContextPool contexts) {
+        this.properties = properties;
+        this.pdfLoader = pdfLoader;
+        this.contexts = contexts;
+        if (!properties.isParallel() || properties.getParallelism() < 2) {
+            this.executor = null;
+            return;
+        }
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "text-extractor-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * @return whether {@link #getText} can use the upload file; when false it may be passed as null
+     */
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    public boolean isRegionMode() {
+        return properties.isRegions();
+    }
+
+    public boolean isTableMode() {
+        return properties.isTable();
+    }
+
+    public boolean isClassifying() {
+        return properties.getClassifyPages() > 0;
+    }
+
+    /**
+     * Strips the leading pages that tell what kind of document it is, see {@link ExtractionProperties#getClassifyPages()}.
+     */
+    public String getLeadingText(PDDocument document) throws IOException {
+        return strip(document, 1, Math.min(properties.getClassifyPages(), document.getNumberOfPages()));
+    }
+
+    /**
+     * Strips the header block of the first page and the body of all pages, each page once with the area stripper
+     * of a pooled context. Text is read in visual order, so table cells come row by row; lines are joined with
+     * spaces, as the parser expects.
+     */
+    public SheetRegions getRegions(PDDocument document) throws IOException {
+        StringBuilder header = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        try (ParseContext context = contexts.borrow()) {
+            for (int i = 0; i < document.getNumberOfPages(); i++) {
+                PDPage page = document.getPage(i);
+                float width = page.getCropBox().getWidth();
+                float height = page.getCropBox().getHeight();
+                float top = i == 0 ? Math.min(properties.getHeaderHeight(), height) : 0;
+                context.stripAreas(page, new Rectangle2D.Float(0, 0, width, top), header,
+                        new Rectangle2D.Float(0, top, width, height - top), body, properties.isSuppressDuplicateText());
+                body.append(' ');
+            }
+        }
+        return new SheetRegions(header.toString(), body.toString());
+    }
+
+    /**
+     * Strips the whole document on the calling thread, reading the student table by cell on the way.
+     * The text is the same as {@link #getText} gives.
+     */
+    public TabularText getTabularText(PDDocument document) throws IOException {
+        TableStripper stripper = new TableStripper();
+        stripper.setSuppressDuplicateOverlappingText(properties.isSuppressDuplicateText());
+        String text = stripper.getText(document);
+        return new TabularText(text, TableLayout.rows(stripper.getWords()));
+    }
+
+    /**
+     * @param pdf the file {@code document} was loaded from, or null to always strip serially
+     */
+    public String getText(PDDocument document, File pdf) throws IOException {
+        return getText(document, pdf, null);
+    }
+
+    /**
+     * @param leadingText what {@link #getLeadingText} returned for the document, or null;
+     *                    only the pages after the leading ones are stripped again
+     */
+    public String getText(PDDocument document, File pdf, String leadingText) throws IOException {
+        int skipped = leadingText == null ? 0 : Math.min(properties.getClassifyPages(), document.getNumberOfPages());
+        int pages = document.getNumberOfPages() - skipped;
+        if (pages == 0) return leadingText;
+        int tasks = isParallel() && pdf != null
+                ? Math.min(properties.getParallelism(), pages / Math.max(1, properties.getMinPagesPerTask()))
+                : 1;
+        if (tasks < 2) {
+            String text = strip(document, skipped + 1, skipped + pages);
+            return leadingText == null ? text : leadingText + text;
+        }
+
+        List<Future<String>> ranges = new ArrayList<>(tasks - 1);
+        for (int i = 1; i < tasks; i++) {
+            int startPage = rangeStart(skipped, pages, tasks, i);
+            int endPage = rangeStart(skipped, pages, tasks, i + 1) - 1;
+            ranges.add(executor.submit(() -> pdfLoader.readCopy(pdf, copy -> strip(copy, startPage, endPage))));
+        }
+        try {
+            StringBuilder text = new StringBuilder(leadingText == null ? "" : leadingText);
+            text.append(strip(document, skipped + 1, rangeStart(skipped, pages, tasks, 1) - 1));
+            for (int i = 1; i < tasks; i++) {
+                String range = ranges.get(i - 1).get();
+                text.append(range != null ? range : strip(document, rangeStart(skipped, pages, tasks, i),
+                        rangeStart(skipped, pages, tasks, i + 1) - 1));
+            }
+            return text.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Видобування тексту перервано.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            ranges.forEach(range -> range.cancel(true));
+        }
+    }
+
+    // first page of the i-th of the ranges the pages after the skipped ones are split into
+    private static int rangeStart(int skipped, int pages, int tasks, int i) {
+        return skipped + i * pages / tasks + 1;
+    }
+
+    private String strip(PDDocument document, int startPage, int endPage) throws IOException {
+        try (ParseContext context = contexts.borrow()) {
+            return context.strip(document, startPage, endPage, properties.isSuppressDuplicateText());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) executor.shutdownNow();
+    }
+}
@@ -0,0 +1,103 @@
+package edu.ukma.rdb.gradesheetparser.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The reader must find the same rows and cells as the table regex it replaced.
+ */
+class StudentRowReaderTest {
+    private static final Pattern TABLE_ROW = Pattern.compile("(?u)(\\d+)\\s+((\\p{IsCyrillic}{2,}\\s*){2,})?\\s*(І\\d?\\s*\\d{3}/\\d{2}\\s*((бп)|(мп)))?\\s*(\\d+)?\\s*(\\d+)?\\s*(\\d+)?\\s*([\\p{IsCyrillic} ]+)?\\s+(\\p{Alpha})?\\s*");
+
+    private static final String[] ROWS = {
+            "1 Іванов Петро Олегович І 016/10 мп 40 55 95 Відмінно A",
+            "2 Димченко Микита Олегович І 016/10 мп Не відвідував F",
+            "3 Ко Ян І5 123/45бп 30 30 60 Задовільно E",
+            "4 Петренко Оля\tІ 016/10 мп 40 55 95  Відмінно   A",
+            "5 Шевченко Тарас І 016/10 мп 20 22 42 Не зараховано Fx",
+    };
+
+    private static final String[] PIECES = {"1", "12", "7", "95", " ", "  ", "\r\n", "\t", "Іванов", "Петро", "Ів",
+            "Оля", "П", "І", "І5", "016/10", "І016/10", "бп", "мп", "Добре", "Не", "зар", "A", "Fx", "x", "/", ".",
+            "-", "'", "ё"};
+
+    @Test
+    void readsNormalRows() {
+        assertSameRows(String.join("\r\n", ROWS) + "\r\n");
+    }
+
+    @Test
+    void readsGluedRows() {
+        assertSameRows("1 Іванов Петро ОлеговичІ016/10мп 40 55 95 Відмінно A\r\n");
+        assertSameRows("2 Петренко Оля І 016/10 мп 20 22Не зараховано Fx\r\n");
+        assertSameRows("3 Петренко Оля І 016/10 мп40 55 95Відмінно A\r\n");
+        assertSameRows("4 Петренко ОляІ 016/10 мп 40 55 95 Відмінно\r\n5 Ко Ян");
+    }
+
+    @Test
+    void readsGarbledRows() {
+        assertSameRows("1 Іванов Петро Олегович І 01610 мп 40 55 95 Відмінно A\r\n");
+        assertSameRows("2 Іванов І 016/10 мп 40 50 90 Добре B\r\n3 Ко Ян І 016/10 м 4 55 95 Добре B\r\n");
+        assertSameRows("4 П. Іваненко І 016/10 мп 40 55 95 Відмінно A\r\n5 Оля-Марія Ко І 016/10 мп 1 2 3\r\n");
+        assertSameRows("6 7 8\r\n9 Не\r\n10 A\r\n11");
+    }
+
+    @Test
+    void readsRandomText() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder text = new StringBuilder();
+            if (i % 2 == 0) {
+                for (int j = random.nextInt(30); j >= 0; j--) text.append(PIECES[random.nextInt(PIECES.length)]);
+            } else {
+                for (int j = random.nextInt(5); j >= 0; j--) text.append(ROWS[random.nextInt(ROWS.length)]).append("\r\n");
+                for (int j = random.nextInt(4); j > 0; j--) {
+                    int at = random.nextInt(text.length());
+                    if (random.nextBoolean()) text.deleteCharAt(at);
+                    else text.insert(at, PIECES[random.nextInt(PIECES.length)]);
+                }
+            }
+            assertSameRows(text.toString());
+        }
+    }
+
+    private static void assertSameRows(String text) {
+        List<String> expected = new ArrayList<>();
+        Matcher m = TABLE_ROW.matcher(text);
+        while (m.find()) {
+            String name = m.group(2) == null ? "" : String.join(" ", m.group(2).trim().split("\\s+"));
+            String nationalGrade = m.group(11) == null ? null : m.group(11).replaceAll("\\s+", "").toLowerCase();
+            expected.add(row(Integer.parseInt(m.group(1)), name, m.group(4), number(m.group(8)), number(m.group(9)),
+                    number(m.group(10)), nationalGrade, m.group(12) == null ? null : m.group(12).charAt(0)));
+        }
+
+        List<String> actual = new ArrayList<>();
+        StudentRowReader rows = new StudentRowReader(text);
+        while (rows.next()) {
+            List<String> name = new ArrayList<>();
+            for (int i = 0; i < rows.getNameWordCount(); i++) name.add(rows.getNameWord(i));
+            CharSequence nationalGrade = rows.getNormalizedNationalGrade();
+            actual.add(row(rows.getOrdinal(), String.join(" ", name), rows.getBookNo(), rows.getTermGrade(),
+                    rows.getExamGrade(), rows.getSum(), nationalGrade == null ? null : nationalGrade.toString(),
+                    rows.getEctsGrade()));
+        }
+        assertEquals(expected, actual, text);
+    }
+
+    private static Integer number(String group) {
+        return group == null ? null : Integer.valueOf(group);
+    }
+
+    private static String row(Object... cells) {
+        List<String> row = new ArrayList<>();
+        for (Object cell : cells) row.add(String.valueOf(cell));
+        return String.join(" | ", row);
+    }
+}